@@ -0,0 +1,40 @@
+package com.aichef.config;
+
+import com.aichef.service.OllamaModelWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OllamaModelHealthIndicator implements HealthIndicator {
+
+    private final OllamaModelWarmupService warmupService;
+
+    @Override
+    public Health health() {
+        OllamaModelWarmupService.State state = warmupService.state();
+        Health.Builder builder = switch (state) {
+            case READY, DISABLED -> Health.up();
+            case WARMING, FAILED -> Health.unknown();
+        };
+        builder.withDetail("state", state.name());
+        if (state == OllamaModelWarmupService.State.DISABLED) {
+            return builder.build();
+        }
+        builder.withDetail("model", warmupService.model())
+                .withDetail("keepAlive", warmupService.keepAlive());
+        if (warmupService.lastLoadMs() != null) {
+            builder.withDetail("lastLoadMs", warmupService.lastLoadMs());
+        }
+        if (warmupService.lastSuccessAt() != null) {
+            builder.withDetail("lastSuccessAt", warmupService.lastSuccessAt().toString());
+        }
+        if (warmupService.lastError() != null) {
+            builder.withDetail("error", warmupService.lastError())
+                    .withDetail("consecutiveFailures", warmupService.consecutiveFailures());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.aichef.controller;
+
+import com.aichef.service.GoogleCalendarWatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/google/calendar")
+public class GoogleCalendarPushController {
+
+    private final GoogleCalendarWatchService googleCalendarWatchService;
+
+    @PostMapping("/push")
+    public ResponseEntity<Void> push(
+            @RequestHeader(value = "X-Goog-Channel-ID", required = false) String channelId,
+            @RequestHeader(value = "X-Goog-Resource-ID", required = false) String resourceId,
+            @RequestHeader(value = "X-Goog-Resource-State", required = false) String resourceState,
+            @RequestHeader(value = "X-Goog-Channel-Token", required = false) String channelToken
+    ) {
+        googleCalendarWatchService.handleNotification(channelId, resourceId, resourceState, channelToken);
+        return ResponseEntity.noContent().build();
+    }
+}
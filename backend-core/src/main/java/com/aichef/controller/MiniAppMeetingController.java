@@ -1,17 +1,20 @@
 package com.aichef.controller;
 
+import com.aichef.domain.enums.CalendarOutboxOperation;
 import com.aichef.domain.enums.MeetingStatus;
 import com.aichef.domain.model.CalendarDay;
 import com.aichef.domain.model.Meeting;
 import com.aichef.domain.model.User;
 import com.aichef.repository.CalendarDayRepository;
 import com.aichef.repository.MeetingRepository;
+import com.aichef.service.CalendarOutboxService;
 import com.aichef.service.MiniAppAuthService;
 import com.aichef.util.TextNormalization;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -30,6 +33,7 @@ public class MiniAppMeetingController {
     private final MiniAppAuthService miniAppAuthService;
     private final MeetingRepository meetingRepository;
     private final CalendarDayRepository calendarDayRepository;
+    private final CalendarOutboxService calendarOutboxService;
 
     @GetMapping
     public ResponseEntity<?> list(
@@ -59,6 +63,7 @@ public class MiniAppMeetingController {
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<?> create(
             @RequestBody MeetingUpdateRequest request,
             @RequestHeader(value = "X-Telegram-Init-Data", required = false) String initData,
@@ -82,10 +87,12 @@ public class MiniAppMeetingController {
         meeting.setStatus(MeetingStatus.CONFIRMED);
         meeting.setCalendarDay(getOrCreateDay(user, request.startsAt().toLocalDate()));
         meetingRepository.save(meeting);
+        calendarOutboxService.enqueue(user, meeting, CalendarOutboxOperation.CREATE);
         return ResponseEntity.ok(MeetingDto.from(meeting));
     }
 
     @PatchMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> update(
             @PathVariable("id") UUID id,
             @RequestBody MeetingUpdateRequest request,
@@ -124,10 +131,12 @@ public class MiniAppMeetingController {
             meeting.setExternalLink(request.externalLink());
         }
         meetingRepository.save(meeting);
+        calendarOutboxService.enqueue(user, meeting, CalendarOutboxOperation.UPDATE);
         return ResponseEntity.ok(MeetingDto.from(meeting));
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> delete(
             @PathVariable("id") UUID id,
             @RequestHeader(value = "X-Telegram-Init-Data", required = false) String initData,
@@ -146,6 +155,7 @@ public class MiniAppMeetingController {
         }
         meeting.setStatus(MeetingStatus.CANCELED);
         meetingRepository.save(meeting);
+        calendarOutboxService.enqueue(user, meeting, CalendarOutboxOperation.DELETE);
         return ResponseEntity.noContent().build();
     }
 
@@ -3,6 +3,7 @@ package com.aichef.controller;
 import com.aichef.config.TelegramProperties;
 import com.aichef.dto.TelegramWebhookUpdate;
 import com.aichef.service.TelegramBotService;
+import com.aichef.service.VoiceTranscriptionScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ public class TelegramWebhookController {
 
     private final TelegramProperties properties;
     private final TelegramBotService telegramBotService;
+    private final VoiceTranscriptionScheduler voiceTranscriptionScheduler;
 
     @PostMapping
     public ResponseEntity<Void> webhook(
@@ -41,7 +43,12 @@ public class TelegramWebhookController {
                 update != null && update.message() != null,
                 update != null && update.message() != null && update.message().text() != null);
 
-        telegramBotService.handleUpdate(update);
+        if (update != null && update.message() != null && update.message().chat() != null
+                && update.message().voice() != null) {
+            voiceTranscriptionScheduler.submit(update);
+        } else {
+            telegramBotService.handleUpdate(update);
+        }
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,7 @@
+package com.aichef.domain.enums;
+
+public enum CalendarOutboxOperation {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,55 @@
+package com.aichef.domain.model;
+
+import com.aichef.domain.enums.CalendarOutboxOperation;
+import com.aichef.domain.enums.CalendarOutboxStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "calendar_outbox", indexes = {
+        @Index(name = "idx_calendar_outbox_due", columnList = "status,next_attempt_at"),
+        @Index(name = "idx_calendar_outbox_meeting", columnList = "meeting_id,status")
+})
+public class CalendarOutboxEntry extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "meeting_id", nullable = false)
+    private UUID meetingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CalendarOutboxOperation operation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CalendarOutboxStatus status = CalendarOutboxStatus.PENDING;
+
+    @Column(name = "google_event_id", nullable = false, length = 1024)
+    private String googleEventId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt = OffsetDateTime.now();
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+}
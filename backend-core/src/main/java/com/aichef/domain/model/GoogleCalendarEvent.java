@@ -0,0 +1,46 @@
+package com.aichef.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "google_calendar_events", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_google_calendar_events_user_event", columnNames = {"user_id", "event_id"})
+}, indexes = {
+        @Index(name = "idx_google_calendar_events_user_starts", columnList = "user_id,starts_at")
+})
+public class GoogleCalendarEvent extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "calendar_id", nullable = false)
+    private String calendarId;
+
+    @Column(name = "event_id", nullable = false, length = 1024)
+    private String eventId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String title;
+
+    @Column(name = "starts_at", nullable = false)
+    private OffsetDateTime startsAt;
+
+    @Column(name = "ends_at", nullable = false)
+    private OffsetDateTime endsAt;
+
+    @Column(name = "html_link", columnDefinition = "text")
+    private String htmlLink;
+}
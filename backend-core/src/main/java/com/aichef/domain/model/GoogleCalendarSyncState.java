@@ -0,0 +1,50 @@
+package com.aichef.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "google_calendar_sync_states", indexes = {
+        @Index(name = "idx_google_calendar_sync_states_next", columnList = "next_sync_at")
+})
+public class GoogleCalendarSyncState extends BaseEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "calendar_id")
+    private String calendarId;
+
+    @Column(name = "sync_token", columnDefinition = "text")
+    private String syncToken;
+
+    @Column(name = "page_token", columnDefinition = "text")
+    private String pageToken;
+
+    @Column(name = "window_start")
+    private OffsetDateTime windowStart;
+
+    @Column(name = "last_synced_at")
+    private OffsetDateTime lastSyncedAt;
+
+    @Column(name = "next_sync_at", nullable = false)
+    private OffsetDateTime nextSyncAt = OffsetDateTime.now();
+
+    @Column(name = "failure_count", nullable = false)
+    private int failureCount;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "reset_generation")
+    private Long resetGeneration;
+}
@@ -0,0 +1,51 @@
+package com.aichef.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "google_calendar_watch_channels", indexes = {
+        @Index(name = "idx_google_calendar_watch_channels_channel", columnList = "channel_id", unique = true),
+        @Index(name = "idx_google_calendar_watch_channels_renew", columnList = "renew_at")
+})
+public class GoogleCalendarWatchChannel extends BaseEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "calendar_id")
+    private String calendarId;
+
+    @Column(name = "channel_id", length = 64)
+    private String channelId;
+
+    @Column(name = "resource_id")
+    private String resourceId;
+
+    @Column(name = "channel_token", length = 64)
+    private String channelToken;
+
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "renew_at", nullable = false)
+    private OffsetDateTime renewAt = OffsetDateTime.now();
+
+    @Column(name = "last_notified_at")
+    private OffsetDateTime lastNotifiedAt;
+
+    @Column(name = "failure_count", nullable = false)
+    private int failureCount;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+}
@@ -0,0 +1,59 @@
+package com.aichef.domain.model;
+
+import com.aichef.domain.enums.GoogleExportJobStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "google_export_jobs", indexes = {
+        @Index(name = "idx_google_export_jobs_due", columnList = "status,next_run_at"),
+        @Index(name = "idx_google_export_jobs_user", columnList = "user_id,status")
+})
+public class GoogleExportJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private GoogleExportJobStatus status = GoogleExportJobStatus.PENDING;
+
+    @Column(name = "total_count", nullable = false)
+    private int totalCount;
+
+    @Column(name = "exported_count", nullable = false)
+    private int exportedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "cursor_starts_at", nullable = false)
+    private OffsetDateTime cursorStartsAt;
+
+    @Column(name = "cursor_meeting_id", nullable = false)
+    private UUID cursorMeetingId;
+
+    @Column(name = "retry_count", nullable = false)
+    private int retryCount;
+
+    @Column(name = "next_run_at", nullable = false)
+    private OffsetDateTime nextRunAt = OffsetDateTime.now();
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+}
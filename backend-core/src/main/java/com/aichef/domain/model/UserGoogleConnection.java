@@ -1,5 +1,6 @@
 package com.aichef.domain.model;
 
+import com.aichef.domain.enums.GoogleBreakerState;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -41,6 +42,28 @@ public class UserGoogleConnection {
     @Column(name = "token_expires_at")
     private OffsetDateTime tokenExpiresAt;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "breaker_state", length = 16)
+    private GoogleBreakerState breakerState;
+
+    @Column(name = "breaker_open_count")
+    private Integer breakerOpenCount;
+
+    @Column(name = "breaker_opened_at")
+    private OffsetDateTime breakerOpenedAt;
+
+    @Column(name = "breaker_next_probe_at")
+    private OffsetDateTime breakerNextProbeAt;
+
+    @Column(name = "breaker_last_error", columnDefinition = "text")
+    private String breakerLastError;
+
+    @Column(name = "breaker_notify_pending")
+    private Boolean breakerNotifyPending;
+
+    @Column(name = "breaker_notified_at")
+    private OffsetDateTime breakerNotifiedAt;
+
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt = OffsetDateTime.now();
 
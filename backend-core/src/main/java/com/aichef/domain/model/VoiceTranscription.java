@@ -0,0 +1,36 @@
+package com.aichef.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "voice_transcriptions")
+public class VoiceTranscription extends BaseEntity {
+
+    @Id
+    @Column(name = "file_unique_id", nullable = false, length = 120)
+    private String fileUniqueId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String text;
+
+    @Column(nullable = false, length = 32)
+    private String engine;
+
+    @Column(length = 255)
+    private String model;
+
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    @Column(name = "duration_sec")
+    private Integer durationSec;
+}
@@ -14,6 +14,6 @@ public record TelegramWebhookUpdate(Long update_id, Message message) {
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
-    public record Voice(String file_id, String mime_type, Integer duration, Integer file_size) {
+    public record Voice(String file_id, String file_unique_id, String mime_type, Integer duration, Integer file_size) {
     }
 }
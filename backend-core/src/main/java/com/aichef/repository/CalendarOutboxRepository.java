@@ -0,0 +1,19 @@
+package com.aichef.repository;
+
+import com.aichef.domain.enums.CalendarOutboxStatus;
+import com.aichef.domain.model.CalendarOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CalendarOutboxRepository extends JpaRepository<CalendarOutboxEntry, UUID> {
+
+    List<CalendarOutboxEntry> findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
+            CalendarOutboxStatus status,
+            OffsetDateTime now
+    );
+
+    boolean existsByMeetingIdAndStatusAndCreatedAtBefore(UUID meetingId, CalendarOutboxStatus status, OffsetDateTime createdAt);
+}
@@ -0,0 +1,39 @@
+package com.aichef.repository;
+
+import com.aichef.domain.model.GoogleCalendarEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface GoogleCalendarEventRepository extends JpaRepository<GoogleCalendarEvent, UUID> {
+
+    List<GoogleCalendarEvent> findByUserIdAndEventIdIn(UUID userId, Collection<String> eventIds);
+
+    @Query("""
+            select e from GoogleCalendarEvent e
+            where e.userId = :userId and e.startsAt < :to and e.endsAt > :from
+            order by e.startsAt asc
+            """)
+    List<GoogleCalendarEvent> findOverlapping(
+            @Param("userId") UUID userId,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
+    @Transactional
+    @Modifying
+    @Query("delete from GoogleCalendarEvent e where e.userId = :userId and e.eventId in :eventIds")
+    int deleteByUserIdAndEventIds(@Param("userId") UUID userId, @Param("eventIds") Collection<String> eventIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from GoogleCalendarEvent e where e.userId = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,42 @@
+package com.aichef.repository;
+
+import com.aichef.domain.model.GoogleCalendarSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface GoogleCalendarSyncStateRepository extends JpaRepository<GoogleCalendarSyncState, UUID> {
+
+    List<GoogleCalendarSyncState> findTop50ByNextSyncAtLessThanEqualOrderByNextSyncAtAsc(OffsetDateTime now);
+
+    @Query("""
+            select c.userId from UserGoogleConnection c
+            where c.refreshToken is not null
+              and not exists (select s.userId from GoogleCalendarSyncState s where s.userId = c.userId)
+            """)
+    List<UUID> findConnectedUserIdsWithoutSyncState();
+
+    @Query("select s.resetGeneration from GoogleCalendarSyncState s where s.userId = :userId")
+    Long findResetGeneration(@Param("userId") UUID userId);
+
+    @Transactional
+    @Modifying
+    @Query("update GoogleCalendarSyncState s set s.nextSyncAt = :nextSyncAt where s.userId = :userId")
+    int updateNextSyncAt(@Param("userId") UUID userId, @Param("nextSyncAt") OffsetDateTime nextSyncAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update GoogleCalendarSyncState s
+            set s.resetGeneration = coalesce(s.resetGeneration, 0) + 1,
+                s.syncToken = null, s.pageToken = null, s.lastSyncedAt = null
+            where s.userId = :userId
+            """)
+    int markReset(@Param("userId") UUID userId);
+}
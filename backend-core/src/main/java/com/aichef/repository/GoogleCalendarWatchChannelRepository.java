@@ -0,0 +1,24 @@
+package com.aichef.repository;
+
+import com.aichef.domain.model.GoogleCalendarWatchChannel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface GoogleCalendarWatchChannelRepository extends JpaRepository<GoogleCalendarWatchChannel, UUID> {
+
+    Optional<GoogleCalendarWatchChannel> findByChannelId(String channelId);
+
+    List<GoogleCalendarWatchChannel> findTop50ByRenewAtLessThanEqualOrderByRenewAtAsc(OffsetDateTime now);
+
+    @Query("""
+            select c.userId from UserGoogleConnection c
+            where c.refreshToken is not null
+              and not exists (select w.userId from GoogleCalendarWatchChannel w where w.userId = c.userId)
+            """)
+    List<UUID> findConnectedUserIdsWithoutChannel();
+}
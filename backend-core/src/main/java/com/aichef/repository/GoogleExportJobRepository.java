@@ -0,0 +1,20 @@
+package com.aichef.repository;
+
+import com.aichef.domain.enums.GoogleExportJobStatus;
+import com.aichef.domain.model.GoogleExportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface GoogleExportJobRepository extends JpaRepository<GoogleExportJob, UUID> {
+
+    Optional<GoogleExportJob> findFirstByUserIdAndStatus(UUID userId, GoogleExportJobStatus status);
+
+    List<GoogleExportJob> findTop10ByStatusAndNextRunAtLessThanEqualOrderByNextRunAtAsc(
+            GoogleExportJobStatus status,
+            OffsetDateTime now
+    );
+}
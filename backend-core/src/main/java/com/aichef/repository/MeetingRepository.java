@@ -1,10 +1,17 @@
 package com.aichef.repository;
 
+import com.aichef.domain.enums.MeetingStatus;
 import com.aichef.domain.model.Meeting;
 import com.aichef.domain.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +19,44 @@ public interface MeetingRepository extends JpaRepository<Meeting, UUID> {
     List<Meeting> findByCalendarDay_UserAndCalendarDay_DayDateBetweenOrderByStartsAtAsc(User user, LocalDate from, LocalDate to);
 
     List<Meeting> findByCalendarDay_UserOrderByStartsAtAsc(User user);
+
+    @Query("""
+            select count(m) from Meeting m
+            where m.calendarDay.user = :user
+              and m.status <> :excludedStatus
+              and (m.googleEventId is null or m.googleEventId = '')
+            """)
+    long countUnexported(@Param("user") User user, @Param("excludedStatus") MeetingStatus excludedStatus);
+
+    @Query("""
+            select m from Meeting m
+            where m.calendarDay.user = :user
+              and m.status <> :excludedStatus
+              and (m.googleEventId is null or m.googleEventId = '')
+              and (m.startsAt > :afterStartsAt or (m.startsAt = :afterStartsAt and m.id > :afterId))
+            order by m.startsAt asc, m.id asc
+            """)
+    List<Meeting> findUnexportedAfter(
+            @Param("user") User user,
+            @Param("excludedStatus") MeetingStatus excludedStatus,
+            @Param("afterStartsAt") OffsetDateTime afterStartsAt,
+            @Param("afterId") UUID afterId,
+            Pageable pageable
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Meeting m
+            set m.googleEventId = coalesce(:googleEventId, m.googleEventId),
+                m.externalLink = case when m.externalLink is null or m.externalLink = ''
+                                      then coalesce(:htmlLink, m.externalLink)
+                                      else m.externalLink end
+            where m.id = :meetingId
+            """)
+    int backfillGoogleEvent(
+            @Param("meetingId") UUID meetingId,
+            @Param("googleEventId") String googleEventId,
+            @Param("htmlLink") String htmlLink
+    );
 }
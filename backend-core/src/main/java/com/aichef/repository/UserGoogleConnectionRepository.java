@@ -1,9 +1,17 @@
 package com.aichef.repository;
 
+import com.aichef.domain.enums.GoogleBreakerState;
 import com.aichef.domain.model.User;
 import com.aichef.domain.model.UserGoogleConnection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +19,25 @@ public interface UserGoogleConnectionRepository extends JpaRepository<UserGoogle
     Optional<UserGoogleConnection> findByUser(User user);
 
     Optional<UserGoogleConnection> findByIcsToken(String icsToken);
+
+    List<UserGoogleConnection> findTop50ByBreakerStateInAndBreakerNextProbeAtLessThanEqual(
+            Collection<GoogleBreakerState> breakerStates,
+            OffsetDateTime now
+    );
+
+    List<UserGoogleConnection> findTop50ByBreakerNotifyPendingTrue();
+
+    @Transactional
+    @Modifying
+    @Query("update UserGoogleConnection c set c.breakerState = :state where c.userId = :userId")
+    int updateBreakerState(@Param("userId") UUID userId, @Param("state") GoogleBreakerState state);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update UserGoogleConnection c
+            set c.breakerNotifyPending = false, c.breakerNotifiedAt = :notifiedAt
+            where c.userId = :userId
+            """)
+    int markBreakerNotified(@Param("userId") UUID userId, @Param("notifiedAt") OffsetDateTime notifiedAt);
 }
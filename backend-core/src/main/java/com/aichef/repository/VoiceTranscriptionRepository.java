@@ -0,0 +1,28 @@
+package com.aichef.repository;
+
+import com.aichef.domain.model.VoiceTranscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface VoiceTranscriptionRepository extends JpaRepository<VoiceTranscription, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO voice_transcriptions
+                (file_unique_id, text, engine, model, mime_type, duration_sec, created_at, updated_at)
+            VALUES (:fileUniqueId, :text, :engine, :model, :mimeType, :durationSec, now(), now())
+            ON CONFLICT (file_unique_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(
+            @Param("fileUniqueId") String fileUniqueId,
+            @Param("text") String text,
+            @Param("engine") String engine,
+            @Param("model") String model,
+            @Param("mimeType") String mimeType,
+            @Param("durationSec") Integer durationSec
+    );
+}
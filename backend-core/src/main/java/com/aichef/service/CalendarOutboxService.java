@@ -0,0 +1,48 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.CalendarOutboxOperation;
+import com.aichef.domain.model.CalendarOutboxEntry;
+import com.aichef.domain.model.Meeting;
+import com.aichef.domain.model.User;
+import com.aichef.repository.CalendarOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CalendarOutboxService {
+
+    private final CalendarOutboxRepository outboxRepository;
+    private final GoogleCalendarService googleCalendarService;
+
+    public boolean isSyncAvailable(User user) {
+        return user != null && googleCalendarService.isEnabled() && googleCalendarService.calendarIdFor(user) != null;
+    }
+
+    @Transactional
+    public boolean enqueue(User user, Meeting meeting, CalendarOutboxOperation operation) {
+        if (meeting == null || meeting.getId() == null || !isSyncAvailable(user)) {
+            return false;
+        }
+        CalendarOutboxEntry entry = new CalendarOutboxEntry();
+        entry.setUserId(user.getId());
+        entry.setMeetingId(meeting.getId());
+        entry.setOperation(operation);
+        entry.setGoogleEventId(meeting.getGoogleEventId() == null || meeting.getGoogleEventId().isBlank()
+                ? eventIdFor(meeting.getId())
+                : meeting.getGoogleEventId());
+        outboxRepository.save(entry);
+        log.debug("Calendar outbox entry queued. userId={}, meetingId={}, operation={}",
+                user.getId(), meeting.getId(), operation);
+        return true;
+    }
+
+    public static String eventIdFor(UUID meetingId) {
+        return "aichef" + meetingId.toString().replace("-", "");
+    }
+}
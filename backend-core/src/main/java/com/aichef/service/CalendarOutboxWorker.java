@@ -0,0 +1,199 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.CalendarOutboxOperation;
+import com.aichef.domain.enums.CalendarOutboxStatus;
+import com.aichef.domain.enums.MeetingStatus;
+import com.aichef.domain.model.CalendarOutboxEntry;
+import com.aichef.domain.model.Meeting;
+import com.aichef.domain.model.User;
+import com.aichef.repository.CalendarOutboxRepository;
+import com.aichef.repository.MeetingRepository;
+import com.aichef.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class CalendarOutboxWorker {
+
+    private final CalendarOutboxRepository outboxRepository;
+    private final MeetingRepository meetingRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final TelegramBotService telegramBotService;
+    private final int maxAttempts;
+    private final long baseBackoffSec;
+    private final long maxBackoffSec;
+
+    public CalendarOutboxWorker(
+            CalendarOutboxRepository outboxRepository,
+            MeetingRepository meetingRepository,
+            UserRepository userRepository,
+            GoogleCalendarService googleCalendarService,
+            GoogleCalendarMirrorService googleCalendarMirrorService,
+            GoogleConnectionHealthService connectionHealth,
+            TelegramBotService telegramBotService,
+            @Value("${app.google.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.google.outbox.base-backoff-sec:30}") long baseBackoffSec,
+            @Value("${app.google.outbox.max-backoff-sec:3600}") long maxBackoffSec) {
+        this.outboxRepository = outboxRepository;
+        this.meetingRepository = meetingRepository;
+        this.userRepository = userRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.googleCalendarMirrorService = googleCalendarMirrorService;
+        this.connectionHealth = connectionHealth;
+        this.telegramBotService = telegramBotService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffSec = Math.max(1, baseBackoffSec);
+        this.maxBackoffSec = Math.max(this.baseBackoffSec, maxBackoffSec);
+    }
+
+    @Scheduled(fixedDelayString = "${app.google.outbox.poll-interval-ms:5000}")
+    public void dispatchPending() {
+        if (!googleCalendarService.isEnabled()) {
+            return;
+        }
+        List<CalendarOutboxEntry> entries = outboxRepository
+                .findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(CalendarOutboxStatus.PENDING, OffsetDateTime.now());
+        Set<UUID> blockedMeetings = new HashSet<>();
+        for (CalendarOutboxEntry entry : entries) {
+            UUID meetingId = entry.getMeetingId();
+            if (blockedMeetings.contains(meetingId)
+                    || outboxRepository.existsByMeetingIdAndStatusAndCreatedAtBefore(meetingId, CalendarOutboxStatus.PENDING, entry.getCreatedAt())) {
+                blockedMeetings.add(meetingId);
+                continue;
+            }
+            if (!process(entry)) {
+                blockedMeetings.add(meetingId);
+            }
+        }
+    }
+
+    private boolean process(CalendarOutboxEntry entry) {
+        OffsetDateTime suspendedUntil = connectionHealth.suspendedUntil(entry.getUserId());
+        if (suspendedUntil != null) {
+            entry.setNextAttemptAt(suspendedUntil);
+            outboxRepository.save(entry);
+            return false;
+        }
+        User user = userRepository.findById(entry.getUserId()).orElse(null);
+        Meeting meeting = meetingRepository.findById(entry.getMeetingId()).orElse(null);
+        try {
+            if (user == null) {
+                complete(entry);
+                return true;
+            }
+            if (entry.getOperation() == CalendarOutboxOperation.DELETE) {
+                googleCalendarService.deleteEvent(user, entry.getGoogleEventId());
+            } else if (meeting != null && meeting.getStatus() != MeetingStatus.CANCELED) {
+                backfill(meeting, write(entry, user, meeting));
+            }
+            googleCalendarMirrorService.requestSync(user.getId());
+            complete(entry);
+            return true;
+        } catch (Exception e) {
+            fail(entry, user, meeting, e);
+            return false;
+        }
+    }
+
+    private GoogleCalendarService.CreatedGoogleEvent write(CalendarOutboxEntry entry, User user, Meeting meeting) {
+        ZoneId zoneId = resolveZone(user.getTimezone());
+        if (entry.getOperation() == CalendarOutboxOperation.CREATE) {
+            return googleCalendarService.insertEvent(user, entry.getGoogleEventId(), meeting.getTitle(),
+                    meeting.getStartsAt(), meeting.getEndsAt(), meeting.getExternalLink(), zoneId);
+        }
+        try {
+            return googleCalendarService.updateEvent(user, entry.getGoogleEventId(), meeting.getTitle(),
+                    meeting.getStartsAt(), meeting.getEndsAt(), meeting.getExternalLink(), zoneId);
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() != 404) {
+                throw e;
+            }
+            return googleCalendarService.insertEvent(user, entry.getGoogleEventId(), meeting.getTitle(),
+                    meeting.getStartsAt(), meeting.getEndsAt(), meeting.getExternalLink(), zoneId);
+        }
+    }
+
+    private void backfill(Meeting meeting, GoogleCalendarService.CreatedGoogleEvent event) {
+        String htmlLink = event.htmlLink() == null || event.htmlLink().isBlank() ? null : event.htmlLink();
+        boolean eventIdChanged = event.eventId() != null && !event.eventId().equals(meeting.getGoogleEventId());
+        boolean linkMissing = htmlLink != null
+                && (meeting.getExternalLink() == null || meeting.getExternalLink().isBlank());
+        if (eventIdChanged || linkMissing) {
+            meetingRepository.backfillGoogleEvent(meeting.getId(), event.eventId(), htmlLink);
+        }
+    }
+
+    private void complete(CalendarOutboxEntry entry) {
+        entry.setStatus(CalendarOutboxStatus.DONE);
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(null);
+        entry.setCompletedAt(OffsetDateTime.now());
+        outboxRepository.save(entry);
+    }
+
+    private void fail(CalendarOutboxEntry entry, User user, Meeting meeting, Exception error) {
+        int attempts = entry.getAttempts() + 1;
+        String message = error instanceof RestClientResponseException response
+                ? "status=" + response.getStatusCode() + ", body=" + response.getResponseBodyAsString()
+                : error.getMessage();
+        entry.setAttempts(attempts);
+        entry.setLastError(message);
+        if (attempts < maxAttempts && isRetryable(error)) {
+            long backoff = Math.min(maxBackoffSec, baseBackoffSec << Math.min(attempts - 1, 20));
+            entry.setNextAttemptAt(OffsetDateTime.now().plusSeconds(backoff));
+            outboxRepository.save(entry);
+            log.warn("Calendar outbox entry failed, will retry. id={}, operation={}, attempts={}, retryInSec={}, error={}",
+                    entry.getId(), entry.getOperation(), attempts, backoff, message);
+            return;
+        }
+
+        entry.setStatus(CalendarOutboxStatus.FAILED);
+        entry.setCompletedAt(OffsetDateTime.now());
+        outboxRepository.save(entry);
+        log.error("Calendar outbox entry failed permanently. id={}, operation={}, attempts={}, error={}",
+                entry.getId(), entry.getOperation(), attempts, message);
+        if (user != null && user.getTelegramId() != null) {
+            String title = meeting == null ? "" : " \"" + meeting.getTitle() + "\"";
+            try {
+                telegramBotService.sendMessage(user.getTelegramId(),
+                        "⚠️ Не удалось синхронизировать событие" + title
+                                + " с Google Calendar. Проверьте подключение Google и включение Calendar API.");
+            } catch (Exception e) {
+                log.warn("Failed to notify user about calendar sync failure. userId={}, error={}", user.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean isRetryable(Exception error) {
+        if (error instanceof RestClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status != 400 && status != 404;
+        }
+        return true;
+    }
+
+    private ZoneId resolveZone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneId.of("Europe/Moscow");
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (Exception ignored) {
+            return ZoneId.of("Europe/Moscow");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.aichef.service;
+
+import com.aichef.util.SilenceSplitter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class ChunkedTranscriptionService {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    private final boolean enabled;
+    private final int minDurationSec;
+    private final int minSegmentSec;
+    private final int maxSegmentSec;
+    private final double searchWindowSec;
+    private final String ffmpegCommand;
+    private final long timeoutMs;
+    private final ThreadPoolTaskExecutor chunkExecutor;
+
+    public ChunkedTranscriptionService(
+            @Value("${app.ai.stt-chunking.enabled:true}") boolean enabled,
+            @Value("${app.ai.stt-chunking.min-duration-sec:40}") int minDurationSec,
+            @Value("${app.ai.stt-chunking.min-segment-sec:15}") int minSegmentSec,
+            @Value("${app.ai.stt-chunking.max-segment-sec:45}") int maxSegmentSec,
+            @Value("${app.ai.stt-chunking.search-window-sec:4}") double searchWindowSec,
+            @Value("${app.ai.stt-chunking.ffmpeg-command:ffmpeg}") String ffmpegCommand,
+            @Value("${app.ai.stt-chunking.timeout-ms:180000}") long timeoutMs) {
+        this.enabled = enabled;
+        this.minDurationSec = Math.max(1, minDurationSec);
+        this.minSegmentSec = Math.max(1, minSegmentSec);
+        this.maxSegmentSec = Math.max(this.minSegmentSec, maxSegmentSec);
+        this.searchWindowSec = Math.max(0.5, searchWindowSec);
+        this.ffmpegCommand = ffmpegCommand == null || ffmpegCommand.isBlank() ? "ffmpeg" : ffmpegCommand.trim();
+        this.timeoutMs = Math.max(1000, timeoutMs);
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(256);
+        executor.setThreadNamePrefix("stt-chunk-");
+        executor.initialize();
+        this.chunkExecutor = executor;
+    }
+
+    public boolean shouldChunk(Integer durationSec, int workers) {
+        return enabled && workers > 1 && durationSec != null && durationSec >= minDurationSec;
+    }
+
+    public Transcript transcribe(byte[] encodedAudio, int workers, Function<byte[], Transcript> segmentTranscriber) {
+        long startedAt = System.nanoTime();
+        byte[] pcm = decodeToPcm(encodedAudio);
+        double audioSec = pcm.length / (SAMPLE_RATE * 2.0);
+        List<byte[]> segments = SilenceSplitter.split(pcm, SAMPLE_RATE, segmentCount(audioSec, workers), searchWindowSec);
+
+        List<Future<Transcript>> futures = new ArrayList<>(segments.size());
+        for (byte[] segment : segments) {
+            futures.add(chunkExecutor.submit(() -> segmentTranscriber.apply(segment)));
+        }
+
+        List<String> texts = new ArrayList<>(segments.size());
+        List<TranscriptWord> words = new ArrayList<>();
+        double offsetSec = 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Transcript part = futures.get(i).get(timeoutMs, TimeUnit.MILLISECONDS);
+                if (part.text() != null && !part.text().isBlank()) {
+                    texts.add(part.text().trim());
+                }
+                for (TranscriptWord word : part.words()) {
+                    words.add(new TranscriptWord(word.word(), word.start() + offsetSec, word.end() + offsetSec, word.confidence()));
+                }
+                offsetSec += segments.get(i).length / (SAMPLE_RATE * 2.0);
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chunked transcription interrupted.", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw new IllegalStateException("Chunk transcription failed: " + cause.getMessage(), cause);
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Chunked transcription timeout after " + timeoutMs + "ms", e);
+        }
+
+        log.info("Chunked transcription finished. audioSec={}, segments={}, workers={}, elapsedMs={}",
+                Math.round(audioSec), segments.size(), workers,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return new Transcript(String.join(" ", texts), words);
+    }
+
+    private int segmentCount(double audioSec, int workers) {
+        int byMaxLength = (int) Math.ceil(audioSec / maxSegmentSec);
+        int byWorkers = Math.min(workers, (int) Math.floor(audioSec / minSegmentSec));
+        return Math.max(1, Math.max(byMaxLength, byWorkers));
+    }
+
+    private byte[] decodeToPcm(byte[] encodedAudio) {
+        Process process;
+        try {
+            process = new ProcessBuilder(
+                    ffmpegCommand, "-loglevel", "error", "-i", "pipe:0",
+                    "-ar", String.valueOf(SAMPLE_RATE), "-ac", "1", "-f", "s16le", "-"
+            ).start();
+        } catch (IOException e) {
+            throw new IllegalStateException("ffmpeg is not installed or not available in PATH: " + e.getMessage(), e);
+        }
+
+        Thread feeder = Thread.ofVirtual().name("stt-chunk-ffmpeg-feed").start(() -> {
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(encodedAudio);
+            } catch (IOException ignored) {
+            }
+        });
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        AtomicReference<IOException> outputError = new AtomicReference<>();
+        Thread outputReader = Thread.ofVirtual().name("stt-chunk-ffmpeg-out").start(() -> {
+            try (InputStream output = process.getInputStream()) {
+                output.transferTo(stdout);
+            } catch (IOException e) {
+                outputError.set(e);
+            }
+        });
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        Thread errorReader = Thread.ofVirtual().name("stt-chunk-ffmpeg-err").start(() -> {
+            try (InputStream errors = process.getErrorStream()) {
+                errors.transferTo(stderr);
+            } catch (IOException ignored) {
+            }
+        });
+
+        try {
+            if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("ffmpeg decode timeout after " + timeoutMs + "ms");
+            }
+            feeder.join();
+            outputReader.join();
+            errorReader.join();
+            if (outputError.get() != null) {
+                throw outputError.get();
+            }
+            if (process.exitValue() != 0) {
+                throw new IllegalStateException("ffmpeg decode failed. exitCode=" + process.exitValue()
+                        + ", stderr=" + stderr.toString(StandardCharsets.UTF_8).trim());
+            }
+            byte[] pcm = stdout.toByteArray();
+            if (pcm.length == 0) {
+                throw new IllegalStateException("ffmpeg produced empty audio.");
+            }
+            return pcm;
+        } catch (IOException e) {
+            process.destroyForcibly();
+            throw new IllegalStateException("ffmpeg decode failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while decoding audio.", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        chunkExecutor.shutdown();
+    }
+}
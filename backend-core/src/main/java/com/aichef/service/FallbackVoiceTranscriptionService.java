@@ -1,23 +1,118 @@
 package com.aichef.service;
 
 import com.aichef.config.AiProperties;
-import lombok.RequiredArgsConstructor;
+import com.aichef.domain.model.VoiceTranscription;
+import com.aichef.repository.VoiceTranscriptionRepository;
+import com.aichef.util.TranscriptQuality;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
 @Primary
-@RequiredArgsConstructor
 public class FallbackVoiceTranscriptionService implements VoiceTranscriptionService {
 
     private final AiProperties aiProperties;
     private final LocalVoskVoiceTranscriptionService localVoskVoiceTranscriptionService;
     private final LocalWhisperVoiceTranscriptionService localWhisperVoiceTranscriptionService;
+    private final VoiceTranscriptionRepository voiceTranscriptionRepository;
+    private final Map<String, VoiceTranscriptionResult> recentTranscriptions;
+    private final MeterRegistry meterRegistry;
+    private final boolean raceEnabled;
+    private final long raceDelayMs;
+    private final long raceTimeoutMs;
+    private final double raceMinIdleCores;
+    private final double raceMinConfidence;
+    private final ThreadPoolTaskExecutor raceExecutor;
+
+    public FallbackVoiceTranscriptionService(
+            AiProperties aiProperties,
+            LocalVoskVoiceTranscriptionService localVoskVoiceTranscriptionService,
+            LocalWhisperVoiceTranscriptionService localWhisperVoiceTranscriptionService,
+            VoiceTranscriptionRepository voiceTranscriptionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.voice-cache.max-entries:1000}") int maxCacheEntries,
+            @Value("${app.ai.stt-race.enabled:false}") boolean raceEnabled,
+            @Value("${app.ai.stt-race.delay-ms:3000}") long raceDelayMs,
+            @Value("${app.ai.stt-race.timeout-ms:300000}") long raceTimeoutMs,
+            @Value("${app.ai.stt-race.min-idle-cores:2}") double raceMinIdleCores,
+            @Value("${app.ai.stt-race.min-confidence:0.6}") double raceMinConfidence) {
+        this.aiProperties = aiProperties;
+        this.localVoskVoiceTranscriptionService = localVoskVoiceTranscriptionService;
+        this.localWhisperVoiceTranscriptionService = localWhisperVoiceTranscriptionService;
+        this.voiceTranscriptionRepository = voiceTranscriptionRepository;
+        this.meterRegistry = meterRegistry;
+        this.raceEnabled = raceEnabled;
+        this.raceDelayMs = Math.max(0, raceDelayMs);
+        this.raceTimeoutMs = Math.max(1000, raceTimeoutMs);
+        this.raceMinIdleCores = raceMinIdleCores;
+        this.raceMinConfidence = raceMinConfidence;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(32);
+        executor.setThreadNamePrefix("stt-race-");
+        executor.initialize();
+        this.raceExecutor = executor;
+        int capacity = Math.max(1, maxCacheEntries);
+        this.recentTranscriptions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VoiceTranscriptionResult> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @Override
+    public VoiceTranscriptionResult transcribe(String fileId, String fileUniqueId, String mimeType, Integer durationSec) {
+        if (fileUniqueId == null || fileUniqueId.isBlank()) {
+            return transcribe(fileId, mimeType, durationSec);
+        }
+
+        VoiceTranscriptionResult cached = findCached(fileUniqueId);
+        if (cached != null) {
+            log.info("STT cache hit. fileId={}, fileUniqueId={}, engine={}", fileId, fileUniqueId, cached.engine());
+            return cached;
+        }
+
+        VoiceTranscriptionResult result = transcribe(fileId, mimeType, durationSec);
+        remember(fileUniqueId, result);
+        return result;
+    }
 
     @Override
     public VoiceTranscriptionResult transcribe(String fileId, String mimeType, Integer durationSec) {
+        if (raceEnabled && aiProperties.hasVoskModelPath() && localWhisperVoiceTranscriptionService.isAvailable()) {
+            return race(fileId, mimeType, durationSec);
+        }
+        return transcribeSequentially(fileId, mimeType, durationSec);
+    }
+
+    private VoiceTranscriptionResult transcribeSequentially(String fileId, String mimeType, Integer durationSec) {
         Exception voskError = null;
         Exception whisperError = null;
 
@@ -32,7 +127,7 @@ public class FallbackVoiceTranscriptionService implements VoiceTranscriptionServ
             }
         }
 
-        if (aiProperties.hasWhisperCommand()) {
+        if (localWhisperVoiceTranscriptionService.isAvailable()) {
             try {
                 VoiceTranscriptionResult result = localWhisperVoiceTranscriptionService.transcribe(fileId, mimeType, durationSec);
                 log.info("STT engine=Whisper fileId={}", fileId);
@@ -51,6 +146,201 @@ public class FallbackVoiceTranscriptionService implements VoiceTranscriptionServ
             Exception primary = whisperError != null ? whisperError : voskError;
             throw new IllegalStateException("Voice transcription failed in all configured engines.", primary);
         }
-        throw new IllegalStateException("Voice transcription is unavailable. Configure APP_VOSK_MODEL_PATH or APP_WHISPER_COMMAND.");
+        throw new IllegalStateException("Voice transcription is unavailable. Configure APP_VOSK_MODEL_PATH, APP_WHISPER_COMMAND or APP_WHISPER_SERVER_URL.");
+    }
+
+    private VoiceTranscriptionResult race(String fileId, String mimeType, Integer durationSec) {
+        long startedAt = System.nanoTime();
+        BlockingQueue<EngineRun> finished = new LinkedBlockingQueue<>();
+        List<EngineRun> runs = new ArrayList<>();
+        try {
+            EngineRun vosk = startEngine("vosk", finished,
+                    () -> localVoskVoiceTranscriptionService.transcribe(fileId, mimeType, durationSec));
+            runs.add(vosk);
+
+            boolean idleCores = hasIdleCores();
+            if (!idleCores) {
+                VoiceTranscriptionResult early = awaitEarly(vosk, raceDelayMs);
+                if (early != null && !isLowQuality(early)) {
+                    return finishRace(fileId, vosk, early, startedAt);
+                }
+            }
+
+            EngineRun whisper = startEngine("whisper", finished,
+                    () -> localWhisperVoiceTranscriptionService.transcribe(fileId, mimeType, durationSec));
+            runs.add(whisper);
+            log.debug("STT race started second engine. fileId={}, idleCores={}, elapsedMs={}",
+                    fileId, idleCores, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+            long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(raceTimeoutMs);
+            EngineRun best = null;
+            double bestScore = -1;
+            int pending = runs.size();
+            while (pending > 0) {
+                EngineRun done = finished.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    break;
+                }
+                pending--;
+                VoiceTranscriptionResult result = done.result().getNow(null);
+                if (result == null) {
+                    continue;
+                }
+                if (!isLowQuality(result)) {
+                    return finishRace(fileId, done, result, startedAt);
+                }
+                double score = TranscriptQuality.score(result.text());
+                if (score > bestScore) {
+                    best = done;
+                    bestScore = score;
+                }
+            }
+            if (best != null) {
+                return finishRace(fileId, best, best.result().getNow(null), startedAt);
+            }
+            throw raceFailure(runs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Voice transcription interrupted.", e);
+        } finally {
+            for (EngineRun run : runs) {
+                if (!run.result().isDone()) {
+                    log.info("STT race cancelling slower engine. fileId={}, engine={}", fileId, run.engine());
+                    run.task().cancel(true);
+                }
+            }
+        }
+    }
+
+    private boolean isLowQuality(VoiceTranscriptionResult result) {
+        return TranscriptQuality.isLowQuality(result.text())
+                || (result.confidence() != null && result.confidence() < raceMinConfidence);
+    }
+
+    private EngineRun startEngine(String engine, BlockingQueue<EngineRun> finished, Supplier<VoiceTranscriptionResult> call) {
+        CompletableFuture<VoiceTranscriptionResult> result = new CompletableFuture<>();
+        long startedAt = System.nanoTime();
+        Future<?> task = raceExecutor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                Timer.builder("stt.engine.latency")
+                        .tag("engine", engine)
+                        .tag("outcome", result.isCompletedExceptionally() ? "error" : "ok")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+        EngineRun run = new EngineRun(engine, task, result);
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                log.warn("STT race engine failed. engine={}, error={}", engine, error.getMessage());
+            }
+            finished.offer(run);
+        });
+        return run;
+    }
+
+    private VoiceTranscriptionResult awaitEarly(EngineRun run, long waitMs) throws InterruptedException {
+        try {
+            return run.result().get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    private VoiceTranscriptionResult finishRace(String fileId, EngineRun winner, VoiceTranscriptionResult result, long startedAt) {
+        long elapsedNanos = System.nanoTime() - startedAt;
+        Counter.builder("stt.race.wins").tag("engine", winner.engine()).register(meterRegistry).increment();
+        Timer.builder("stt.race.latency")
+                .tag("engine", winner.engine())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("STT race won. fileId={}, engine={}, score={}, elapsedMs={}", fileId, winner.engine(),
+                String.format(Locale.ROOT, "%.2f", TranscriptQuality.score(result.text())),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return result;
+    }
+
+    private IllegalStateException raceFailure(List<EngineRun> runs) {
+        IllegalStateException failure = new IllegalStateException("Voice transcription failed in all configured engines.");
+        for (EngineRun run : runs) {
+            if (run.result().isCompletedExceptionally()) {
+                try {
+                    run.result().join();
+                } catch (Exception e) {
+                    failure.addSuppressed(e.getCause() == null ? e : e.getCause());
+                }
+            } else if (!run.result().isDone()) {
+                failure.addSuppressed(new IllegalStateException(run.engine() + " timed out after " + raceTimeoutMs + "ms"));
+            }
+        }
+        return failure;
+    }
+
+    private boolean hasIdleCores() {
+        double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        if (load < 0) {
+            return false;
+        }
+        return Runtime.getRuntime().availableProcessors() - load >= raceMinIdleCores;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        raceExecutor.shutdown();
+    }
+
+    private VoiceTranscriptionResult findCached(String fileUniqueId) {
+        VoiceTranscriptionResult cached = recentTranscriptions.get(fileUniqueId);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            VoiceTranscription stored = voiceTranscriptionRepository.findById(fileUniqueId).orElse(null);
+            if (stored == null) {
+                return null;
+            }
+            VoiceTranscriptionResult result = new VoiceTranscriptionResult(
+                    stored.getText(),
+                    null,
+                    stored.getMimeType(),
+                    stored.getDurationSec(),
+                    stored.getEngine(),
+                    stored.getModel(),
+                    null
+            );
+            recentTranscriptions.put(fileUniqueId, result);
+            return result;
+        } catch (Exception e) {
+            log.warn("Failed to read voice transcription cache. fileUniqueId={}, error={}", fileUniqueId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void remember(String fileUniqueId, VoiceTranscriptionResult result) {
+        if (result == null || result.text() == null || result.text().isBlank()) {
+            return;
+        }
+        recentTranscriptions.put(fileUniqueId, result);
+        try {
+            voiceTranscriptionRepository.insertIfAbsent(
+                    fileUniqueId,
+                    result.text(),
+                    result.engine() == null ? "unknown" : result.engine(),
+                    result.model(),
+                    result.mimeType(),
+                    result.durationSec()
+            );
+        } catch (Exception e) {
+            log.warn("Failed to store voice transcription cache. fileUniqueId={}, error={}", fileUniqueId, e.getMessage());
+        }
+    }
+
+    private record EngineRun(String engine, Future<?> task, CompletableFuture<VoiceTranscriptionResult> result) {
     }
 }
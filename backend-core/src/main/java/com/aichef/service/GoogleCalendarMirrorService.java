@@ -0,0 +1,352 @@
+package com.aichef.service;
+
+import com.aichef.domain.model.GoogleCalendarEvent;
+import com.aichef.domain.model.GoogleCalendarSyncState;
+import com.aichef.domain.model.User;
+import com.aichef.repository.GoogleCalendarEventRepository;
+import com.aichef.repository.GoogleCalendarSyncStateRepository;
+import com.aichef.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class GoogleCalendarMirrorService {
+
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarEventRepository eventRepository;
+    private final GoogleCalendarSyncStateRepository syncStateRepository;
+    private final UserRepository userRepository;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final boolean enabled;
+    private final long syncIntervalSec;
+    private final long maxStalenessSec;
+    private final long maxBackoffSec;
+    private final int pastDays;
+    private final Set<UUID> syncing = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Object> userLocks = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor syncExecutor;
+
+    public GoogleCalendarMirrorService(
+            GoogleCalendarService googleCalendarService,
+            GoogleCalendarEventRepository eventRepository,
+            GoogleCalendarSyncStateRepository syncStateRepository,
+            UserRepository userRepository,
+            GoogleConnectionHealthService connectionHealth,
+            @Value("${app.google.mirror.enabled:true}") boolean enabled,
+            @Value("${app.google.mirror.sync-interval-sec:300}") long syncIntervalSec,
+            @Value("${app.google.mirror.max-staleness-sec:1800}") long maxStalenessSec,
+            @Value("${app.google.mirror.max-backoff-sec:3600}") long maxBackoffSec,
+            @Value("${app.google.mirror.past-days:400}") int pastDays,
+            @Value("${app.google.mirror.threads:4}") int threads) {
+        this.googleCalendarService = googleCalendarService;
+        this.eventRepository = eventRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.userRepository = userRepository;
+        this.connectionHealth = connectionHealth;
+        this.enabled = enabled;
+        this.syncIntervalSec = Math.max(10, syncIntervalSec);
+        this.maxStalenessSec = Math.max(this.syncIntervalSec, maxStalenessSec);
+        this.maxBackoffSec = Math.max(this.syncIntervalSec, maxBackoffSec);
+        this.pastDays = Math.max(1, pastDays);
+
+        int poolSize = Math.max(1, threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("google-mirror-");
+        executor.initialize();
+        this.syncExecutor = executor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<CalendarEventView> listEvents(User user, LocalDate from, LocalDate to, ZoneId zoneId) {
+        if (!enabled || user == null || user.getId() == null) {
+            return googleCalendarService.listEvents(user, from, to, zoneId);
+        }
+        OffsetDateTime rangeStart = from.atStartOfDay(zoneId).toOffsetDateTime();
+        OffsetDateTime rangeEnd = to.plusDays(1).atStartOfDay(zoneId).toOffsetDateTime();
+        GoogleCalendarSyncState state = syncStateRepository.findById(user.getId()).orElse(null);
+        if (isServable(state, rangeStart)) {
+            return eventRepository.findOverlapping(user.getId(), rangeStart, rangeEnd).stream()
+                    .map(event -> new CalendarEventView(event.getTitle(), event.getStartsAt(), event.getEndsAt(), "google", event.getHtmlLink()))
+                    .toList();
+        }
+        log.debug("Google mirror not ready, reading live. userId={}, hasState={}", user.getId(), state != null);
+        return googleCalendarService.listEvents(user, from, to, zoneId);
+    }
+
+    public void requestSync(UUID userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        try {
+            if (syncStateRepository.updateNextSyncAt(userId, OffsetDateTime.now()) == 0) {
+                GoogleCalendarSyncState created = new GoogleCalendarSyncState();
+                created.setUserId(userId);
+                syncStateRepository.save(created);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to request Google mirror sync. userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    public void markDirty(UUID userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        dirty.add(userId);
+        requestSync(userId);
+        submit(userId);
+    }
+
+    public void reset(UUID userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        try {
+            synchronized (lockFor(userId)) {
+                syncStateRepository.markReset(userId);
+                eventRepository.deleteAllByUserId(userId);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to reset Google mirror. userId={}, error={}", userId, e.getMessage());
+        }
+        requestSync(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.google.mirror.poll-interval-ms:15000}")
+    public void syncDueUsers() {
+        if (!enabled || !googleCalendarService.isEnabled()) {
+            return;
+        }
+        for (UUID userId : syncStateRepository.findConnectedUserIdsWithoutSyncState()) {
+            requestSync(userId);
+        }
+        for (GoogleCalendarSyncState state : syncStateRepository.findTop50ByNextSyncAtLessThanEqualOrderByNextSyncAtAsc(OffsetDateTime.now())) {
+            if (!submit(state.getUserId())) {
+                break;
+            }
+        }
+    }
+
+    private boolean submit(UUID userId) {
+        if (!syncing.add(userId)) {
+            return true;
+        }
+        try {
+            syncExecutor.execute(() -> {
+                try {
+                    dirty.remove(userId);
+                    syncUser(userId);
+                } finally {
+                    syncing.remove(userId);
+                    if (dirty.contains(userId)) {
+                        submit(userId);
+                    }
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            syncing.remove(userId);
+            return false;
+        }
+    }
+
+    private void syncUser(UUID userId) {
+        GoogleCalendarSyncState state = syncStateRepository.findById(userId).orElse(null);
+        User user = userRepository.findById(userId).orElse(null);
+        if (state == null) {
+            return;
+        }
+        long generation = resetGeneration(state.getResetGeneration());
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime suspendedUntil = connectionHealth.suspendedUntil(userId);
+        if (suspendedUntil != null) {
+            state.setNextSyncAt(suspendedUntil);
+            saveIfCurrent(userId, generation, state);
+            return;
+        }
+        String calendarId = user == null ? null : googleCalendarService.calendarIdFor(user);
+        if (calendarId == null) {
+            state.setNextSyncAt(now.plusSeconds(maxBackoffSec));
+            saveIfCurrent(userId, generation, state);
+            return;
+        }
+        if (!calendarId.equals(state.getCalendarId())) {
+            eventRepository.deleteAllByUserId(userId);
+            state.setCalendarId(calendarId);
+            state.setSyncToken(null);
+            state.setPageToken(null);
+            state.setLastSyncedAt(null);
+        }
+
+        boolean fullSync = state.getSyncToken() == null;
+        if (fullSync && (state.getPageToken() == null || state.getWindowStart() == null)) {
+            eventRepository.deleteAllByUserId(userId);
+            state.setPageToken(null);
+            state.setWindowStart(now.minusDays(pastDays));
+        }
+
+        int pages = 0;
+        int changes = 0;
+        try {
+            while (true) {
+                GoogleCalendarService.EventChangesPage page = googleCalendarService.listEventChanges(
+                        user,
+                        calendarId,
+                        state.getSyncToken(),
+                        state.getPageToken(),
+                        fullSync ? state.getWindowStart() : null
+                );
+                if (!writeIfCurrent(userId, generation, () -> apply(userId, calendarId, page.changes()))) {
+                    return;
+                }
+                pages++;
+                changes += page.changes().size();
+                state.setPageToken(page.nextPageToken());
+                if (page.nextPageToken() == null) {
+                    if (page.nextSyncToken() == null) {
+                        throw new IllegalStateException("Google Calendar returned no nextSyncToken.");
+                    }
+                    state.setSyncToken(page.nextSyncToken());
+                    break;
+                }
+                if (!saveIfCurrent(userId, generation, state)) {
+                    return;
+                }
+            }
+            state.setLastSyncedAt(now);
+            state.setFailureCount(0);
+            state.setLastError(null);
+            state.setNextSyncAt(now.plusSeconds(syncIntervalSec));
+            log.debug("Google mirror synced. userId={}, full={}, pages={}, changes={}", userId, fullSync, pages, changes);
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() == 410) {
+                log.info("Google sync token expired, scheduling full resync. userId={}", userId);
+                state.setSyncToken(null);
+                state.setPageToken(null);
+                state.setLastSyncedAt(null);
+                state.setNextSyncAt(now);
+            } else {
+                markFailed(state, now, "status=" + e.getStatusCode() + ", body=" + e.getResponseBodyAsString());
+            }
+        } catch (Exception e) {
+            markFailed(state, now, e.getMessage());
+        }
+        saveIfCurrent(userId, generation, state);
+    }
+
+    private boolean saveIfCurrent(UUID userId, long generation, GoogleCalendarSyncState state) {
+        return writeIfCurrent(userId, generation, () -> syncStateRepository.save(state));
+    }
+
+    private boolean writeIfCurrent(UUID userId, long generation, Runnable write) {
+        synchronized (lockFor(userId)) {
+            if (generation != resetGeneration(syncStateRepository.findResetGeneration(userId))) {
+                log.info("Google mirror was reset during sync, dropping stale results. userId={}", userId);
+                return false;
+            }
+            write.run();
+            return true;
+        }
+    }
+
+    private long resetGeneration(Long generation) {
+        return generation == null ? 0 : generation;
+    }
+
+    private Object lockFor(UUID userId) {
+        return userLocks.computeIfAbsent(userId, id -> new Object());
+    }
+
+    private void apply(UUID userId, String calendarId, List<GoogleCalendarService.EventChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<String, CalendarEventView> upserts = new HashMap<>();
+        List<String> deletions = new ArrayList<>();
+        for (GoogleCalendarService.EventChange change : changes) {
+            if (change.cancelled()) {
+                upserts.remove(change.eventId());
+                deletions.add(change.eventId());
+            } else {
+                upserts.put(change.eventId(), change.event());
+            }
+        }
+        if (!deletions.isEmpty()) {
+            eventRepository.deleteByUserIdAndEventIds(userId, deletions);
+        }
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        Map<String, GoogleCalendarEvent> existing = new HashMap<>();
+        for (GoogleCalendarEvent event : eventRepository.findByUserIdAndEventIdIn(userId, upserts.keySet())) {
+            existing.put(event.getEventId(), event);
+        }
+        List<GoogleCalendarEvent> toSave = new ArrayList<>(upserts.size());
+        upserts.forEach((eventId, view) -> {
+            GoogleCalendarEvent event = existing.get(eventId);
+            if (event == null) {
+                event = new GoogleCalendarEvent();
+                event.setUserId(userId);
+                event.setEventId(eventId);
+            }
+            event.setCalendarId(calendarId);
+            event.setTitle(view.title());
+            event.setStartsAt(view.startsAt());
+            event.setEndsAt(view.endsAt());
+            event.setHtmlLink(view.link());
+            toSave.add(event);
+        });
+        eventRepository.saveAll(toSave);
+    }
+
+    private void markFailed(GoogleCalendarSyncState state, OffsetDateTime now, String error) {
+        int failures = state.getFailureCount() + 1;
+        long backoff = Math.min(maxBackoffSec, syncIntervalSec << Math.min(failures, 20));
+        state.setFailureCount(failures);
+        state.setLastError(error);
+        state.setNextSyncAt(now.plusSeconds(backoff));
+        log.warn("Google mirror sync failed. userId={}, failures={}, retryInSec={}, error={}",
+                state.getUserId(), failures, backoff, error);
+    }
+
+    private boolean isServable(GoogleCalendarSyncState state, OffsetDateTime rangeStart) {
+        if (state == null || state.getSyncToken() == null || state.getLastSyncedAt() == null) {
+            return false;
+        }
+        if (state.getLastSyncedAt().isBefore(OffsetDateTime.now().minusSeconds(maxStalenessSec))) {
+            return false;
+        }
+        return state.getWindowStart() == null || !rangeStart.isBefore(state.getWindowStart());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdown();
+    }
+}
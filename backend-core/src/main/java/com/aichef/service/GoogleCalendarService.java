@@ -2,46 +2,66 @@ package com.aichef.service;
 
 import com.aichef.config.GoogleCalendarProperties;
 import com.aichef.domain.model.User;
-import com.aichef.domain.model.UserGoogleConnection;
 import com.aichef.repository.UserGoogleConnectionRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.util.UriUtils;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GoogleCalendarService {
 
+    private static final Pattern BATCH_CONTENT_ID = Pattern.compile("(?i)Content-ID:\\s*<response-item-(\\d+)>");
+    private static final Pattern BATCH_STATUS_LINE = Pattern.compile("HTTP/\\d(?:\\.\\d)?\\s+(\\d{3})");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(15);
+
     private final GoogleCalendarProperties properties;
     private final ObjectMapper objectMapper;
     private final UserGoogleConnectionRepository userGoogleConnectionRepository;
-
-    private volatile String cachedAccessToken;
-    private volatile long tokenExpiresAtEpochSec;
+    private final GoogleTokenCache googleTokenCache;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final GoogleEventsResponseCache eventsResponseCache;
+    private final GoogleConnectionContextCache connectionContext;
+    private final JdkClientHttpRequestFactory requestFactory = createRequestFactory();
 
     public boolean isEnabled() {
         return properties.isOAuthConfigured();
     }
 
     public List<CalendarEventView> listEvents(User user, LocalDate from, LocalDate to, ZoneId zoneId) {
+        if (!connectionHealth.isAvailable(userId(user))) {
+            return List.of();
+        }
         String calendarId = resolveCalendarId(user);
         String accessToken = resolveAccessToken(user);
         if (calendarId == null || accessToken == null) {
@@ -49,7 +69,9 @@ public class GoogleCalendarService {
         }
 
         try {
-            return listEventsInternal(calendarId, accessToken, from, to, zoneId);
+            List<CalendarEventView> events = listEventsInternal(userId(user), calendarId, accessToken, from, to, zoneId);
+            connectionHealth.recordSuccess(userId(user));
+            return events;
         } catch (RestClientResponseException e) {
             int statusCode = e.getStatusCode().value();
             boolean shouldFallbackToPrimary =
@@ -62,10 +84,12 @@ public class GoogleCalendarService {
                         e.getStatusCode()
                 );
                 try {
-                    List<CalendarEventView> fallback = listEventsInternal("primary", accessToken, from, to, zoneId);
+                    List<CalendarEventView> fallback = listEventsInternal(userId(user), "primary", accessToken, from, to, zoneId);
                     persistCalendarIdFallback(user, "primary");
+                    connectionHealth.recordSuccess(userId(user));
                     return fallback;
                 } catch (Exception fallbackError) {
+                    connectionHealth.recordFailure(userId(user), fallbackError);
                     log.error(
                             "Fallback to primary calendar also failed. originalCalendarId={}, error={}",
                             calendarId,
@@ -74,6 +98,7 @@ public class GoogleCalendarService {
                     return List.of();
                 }
             }
+            connectionHealth.recordFailure(userId(user), e);
             log.error(
                     "Failed to list Google Calendar events. status={}, calendarId={}, from={}, to={}, zone={}, body={}",
                     e.getStatusCode(),
@@ -98,6 +123,7 @@ public class GoogleCalendarService {
     }
 
     private List<CalendarEventView> listEventsInternal(
+            UUID userId,
             String calendarId,
             String accessToken,
             LocalDate from,
@@ -105,7 +131,7 @@ public class GoogleCalendarService {
             ZoneId zoneId
     ) {
         try {
-            RestClient client = RestClient.builder().baseUrl(properties.safeApiBase()).build();
+            RestClient client = restClient(properties.safeApiBase());
             String timeMin = DateTimeFormatter.ISO_INSTANT.format(from.atStartOfDay(zoneId).toInstant());
             String timeMax = DateTimeFormatter.ISO_INSTANT.format(to.plusDays(1).atStartOfDay(zoneId).toInstant());
             log.debug(
@@ -118,7 +144,9 @@ public class GoogleCalendarService {
                     timeMax
             );
 
-            Map<?, ?> response = client.get()
+            GoogleEventsResponseCache.Key cacheKey = new GoogleEventsResponseCache.Key(userId, calendarId, timeMin, timeMax);
+            GoogleEventsResponseCache.Entry cached = eventsResponseCache.get(cacheKey);
+            ResponseEntity<Map> response = client.get()
                     .uri(uri -> uri
                             .pathSegment("calendars")
                             .pathSegment(calendarId)
@@ -130,165 +158,420 @@ public class GoogleCalendarService {
                             .queryParam("timeMax", timeMax)
                             .build())
                     .header("Authorization", "Bearer " + accessToken)
+                    .headers(headers -> {
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.etag());
+                        }
+                    })
                     .retrieve()
-                    .body(Map.class);
+                    .toEntity(Map.class);
 
-            return parseEvents(response);
+            if (cached != null && response.getStatusCode().value() == 304) {
+                log.debug("Google Calendar list not modified. calendarId={}, timeMin={}, timeMax={}", calendarId, timeMin, timeMax);
+                return cached.events();
+            }
+            List<CalendarEventView> events = parseEvents(response.getBody());
+            eventsResponseCache.put(cacheKey, response.getHeaders().getETag(), events);
+            return events;
         } catch (RestClientException e) {
             throw e;
         }
     }
 
-    public CreatedGoogleEvent createEvent(User user, String title, OffsetDateTime startsAt, OffsetDateTime endsAt, String externalLink, ZoneId zoneId) {
-        String calendarId = resolveCalendarId(user);
-        String accessToken = resolveAccessToken(user);
-        if (calendarId == null || accessToken == null) {
-            log.warn(
-                    "Skip Google Calendar create: missing calendarId or accessToken. userId={}, hasCalendarId={}, hasAccessToken={}",
-                    user == null ? null : user.getId(),
-                    calendarId != null && !calendarId.isBlank(),
-                    accessToken != null && !accessToken.isBlank()
-            );
-            return null;
-        }
+    public record CreatedGoogleEvent(String eventId, String htmlLink) {
+    }
 
+    public CreatedGoogleEvent insertEvent(
+            User user,
+            String eventId,
+            String title,
+            OffsetDateTime startsAt,
+            OffsetDateTime endsAt,
+            String externalLink,
+            ZoneId zoneId
+    ) {
+        String calendarId = requireCalendarId(user);
+        Map<String, Object> payload = eventPayload(title, startsAt, endsAt, externalLink, zoneId);
+        payload.put("id", eventId);
         try {
-            RestClient client = RestClient.builder().baseUrl(properties.safeApiBase()).build();
-            log.info(
-                    "Google Calendar create requested. userId={}, calendarId={}, title={}, startsAt={}, endsAt={}, zone={}",
-                    user == null ? null : user.getId(),
-                    calendarId,
-                    title,
-                    startsAt,
-                    endsAt,
-                    zoneId == null ? null : zoneId.getId()
-            );
-
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("summary", title);
-            payload.put("description", externalLink);
-            payload.put("start", Map.of(
-                    "dateTime", startsAt.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
-                    "timeZone", zoneId.getId()
-            ));
-            payload.put("end", Map.of(
-                    "dateTime", endsAt.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
-                    "timeZone", zoneId.getId()
-            ));
-
-            Map<?, ?> response = client.post()
+            Map<?, ?> response = tracked(user, false, () -> restClient(properties.safeApiBase()).post()
                     .uri("/calendars/{calendarId}/events", calendarId)
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", "Bearer " + requireAccessToken(user))
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(payload)
                     .retrieve()
-                    .body(Map.class);
-
-            if (response == null) {
-                log.error("Google Calendar create returned empty response. userId={}, calendarId={}",
-                        user == null ? null : user.getId(), calendarId);
-                return null;
-            }
-            Object eventId = response.get("id");
-            Object htmlLink = response.get("htmlLink");
-            String id = eventId instanceof String s ? s : null;
-            String link = htmlLink instanceof String s ? s : null;
-            log.info(
-                    "Google Calendar create succeeded. userId={}, calendarId={}, eventId={}, htmlLink={}",
-                    user == null ? null : user.getId(),
-                    calendarId,
-                    id,
-                    link
-            );
-            return new CreatedGoogleEvent(id, link);
+                    .body(Map.class));
+            return toCreatedEvent(response, eventId);
         } catch (RestClientResponseException e) {
-            log.error(
-                    "Google Calendar create failed. status={}, userId={}, calendarId={}, title={}, startsAt={}, endsAt={}, body={}",
-                    e.getStatusCode(),
-                    user == null ? null : user.getId(),
-                    calendarId,
-                    title,
-                    startsAt,
-                    endsAt,
-                    e.getResponseBodyAsString()
-            );
-            return null;
-        } catch (Exception e) {
-            log.error(
-                    "Failed to create Google Calendar event. userId={}, calendarId={}, title={}, startsAt={}, endsAt={}, error={}",
-                    user == null ? null : user.getId(),
-                    calendarId,
-                    title,
-                    startsAt,
-                    endsAt,
-                    e.getMessage()
-            );
-            return null;
+            if (e.getStatusCode().value() != 409) {
+                throw e;
+            }
+            log.info("Google event already exists, updating instead. userId={}, eventId={}", user.getId(), eventId);
+            return updateEvent(user, eventId, title, startsAt, endsAt, externalLink, zoneId);
         }
     }
 
-    public record CreatedGoogleEvent(String eventId, String htmlLink) {
+    public CreatedGoogleEvent updateEvent(
+            User user,
+            String eventId,
+            String title,
+            OffsetDateTime startsAt,
+            OffsetDateTime endsAt,
+            String externalLink,
+            ZoneId zoneId
+    ) {
+        String calendarId = requireCalendarId(user);
+        Map<String, Object> payload = eventPayload(title, startsAt, endsAt, externalLink, zoneId);
+        payload.put("status", "confirmed");
+        Map<?, ?> response = tracked(user, true, () -> restClient(properties.safeApiBase()).put()
+                .uri("/calendars/{calendarId}/events/{eventId}", calendarId, eventId)
+                .header("Authorization", "Bearer " + requireAccessToken(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload)
+                .retrieve()
+                .body(Map.class));
+        return toCreatedEvent(response, eventId);
     }
 
-    private synchronized String getAccessToken(UserGoogleConnection connection) {
-        long now = System.currentTimeMillis() / 1000;
-        if (connection != null
-                && connection.getAccessToken() != null
-                && connection.getTokenExpiresAt() != null
-                && connection.getTokenExpiresAt().toEpochSecond() - now > 30) {
-            return connection.getAccessToken();
+    public List<BatchInsertResult> batchInsertEvents(User user, List<BatchInsert> inserts, ZoneId zoneId) {
+        if (inserts.isEmpty()) {
+            return List.of();
         }
+        String calendarId = requireCalendarId(user);
+        String accessToken = requireAccessToken(user);
+        URI apiBase = URI.create(properties.safeApiBase());
+        String origin = apiBase.getScheme() + "://" + apiBase.getRawAuthority();
+        String apiPath = apiBase.getRawPath() == null ? "" : apiBase.getRawPath().replaceAll("/+$", "");
+        String eventsPath = apiPath + "/calendars/" + UriUtils.encodePathSegment(calendarId, StandardCharsets.UTF_8) + "/events";
+        String boundary = "batch_" + UUID.randomUUID().toString().replace("-", "");
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < inserts.size(); i++) {
+            BatchInsert insert = inserts.get(i);
+            Map<String, Object> payload = eventPayload(insert.title(), insert.startsAt(), insert.endsAt(), insert.externalLink(), zoneId);
+            payload.put("id", insert.eventId());
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(payload);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to serialize Google event payload: " + e.getMessage(), e);
+            }
+            body.append("--").append(boundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <item-").append(i).append(">\r\n\r\n")
+                    .append("POST ").append(eventsPath).append("\r\n")
+                    .append("Content-Type: application/json\r\n\r\n")
+                    .append(json).append("\r\n");
+        }
+        body.append("--").append(boundary).append("--\r\n");
+
+        BatchResponse response = tracked(user, false, () -> restClient(origin).post()
+                .uri("/batch" + apiPath)
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(MediaType.parseMediaType("multipart/mixed; boundary=" + boundary))
+                .body(body.toString())
+                .exchange((request, httpResponse) -> {
+                    String text = new String(httpResponse.getBody().readAllBytes(), StandardCharsets.UTF_8);
+                    if (httpResponse.getStatusCode().isError()) {
+                        throw new RestClientResponseException("Google batch request failed", httpResponse.getStatusCode(),
+                                httpResponse.getStatusText(), httpResponse.getHeaders(), text.getBytes(StandardCharsets.UTF_8),
+                                StandardCharsets.UTF_8);
+                    }
+                    MediaType contentType = httpResponse.getHeaders().getContentType();
+                    return new BatchResponse(contentType == null ? null : contentType.getParameter("boundary"), text);
+                }));
+        return parseBatchResponse(response, inserts);
+    }
 
-        if (connection == null && cachedAccessToken != null && now < tokenExpiresAtEpochSec - 30) {
-            return cachedAccessToken;
+    private List<BatchInsertResult> parseBatchResponse(BatchResponse response, List<BatchInsert> inserts) {
+        if (response.boundary() == null) {
+            throw new IllegalStateException("Google batch response has no multipart boundary.");
+        }
+        BatchInsertResult[] results = new BatchInsertResult[inserts.size()];
+        String normalized = response.body().replace("\r\n", "\n");
+        for (String part : normalized.split(Pattern.quote("--" + response.boundary().replace("\"", "")))) {
+            Matcher contentId = BATCH_CONTENT_ID.matcher(part);
+            Matcher statusLine = BATCH_STATUS_LINE.matcher(part);
+            if (!contentId.find() || !statusLine.find()) {
+                continue;
+            }
+            int index = Integer.parseInt(contentId.group(1));
+            if (index < 0 || index >= inserts.size()) {
+                continue;
+            }
+            int status = Integer.parseInt(statusLine.group(1));
+            int bodyStart = part.indexOf("\n\n", statusLine.end());
+            String partBody = bodyStart < 0 ? "" : part.substring(bodyStart + 2).trim();
+            String eventId = inserts.get(index).eventId();
+            String htmlLink = null;
+            if (status / 100 == 2 && !partBody.isEmpty()) {
+                try {
+                    JsonNode node = objectMapper.readTree(partBody);
+                    eventId = textOr(node, "id", eventId);
+                    htmlLink = textOr(node, "htmlLink", null);
+                } catch (Exception ignored) {
+                }
+            }
+            results[index] = new BatchInsertResult(inserts.get(index).meetingId(), status, eventId, htmlLink,
+                    status / 100 == 2 ? null : partBody);
+        }
+        List<BatchInsertResult> list = new ArrayList<>(inserts.size());
+        for (int i = 0; i < results.length; i++) {
+            list.add(results[i] != null
+                    ? results[i]
+                    : new BatchInsertResult(inserts.get(i).meetingId(), 503, inserts.get(i).eventId(), null, "missing batch response part"));
         }
+        return list;
+    }
+
+    public record BatchInsert(
+            UUID meetingId,
+            String eventId,
+            String title,
+            OffsetDateTime startsAt,
+            OffsetDateTime endsAt,
+            String externalLink
+    ) {
+    }
+
+    public record BatchInsertResult(UUID meetingId, int status, String eventId, String htmlLink, String error) {
+    }
 
-        RestClient tokenClient = RestClient.builder().baseUrl(properties.safeTokenUri()).build();
-        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-        body.add("client_id", properties.clientId());
-        body.add("client_secret", properties.clientSecret());
-        String refreshToken = connection != null ? connection.getRefreshToken() : properties.refreshToken();
-        body.add("refresh_token", refreshToken);
-        body.add("grant_type", "refresh_token");
+    private record BatchResponse(String boundary, String body) {
+    }
 
+    public void deleteEvent(User user, String eventId) {
+        String calendarId = requireCalendarId(user);
         try {
-            Map<?, ?> tokenResp = tokenClient.post()
-                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                    .body(body)
+            tracked(user, true, () -> restClient(properties.safeApiBase()).delete()
+                    .uri("/calendars/{calendarId}/events/{eventId}", calendarId, eventId)
+                    .header("Authorization", "Bearer " + requireAccessToken(user))
                     .retrieve()
-                    .body(Map.class);
-            if (tokenResp == null || !(tokenResp.get("access_token") instanceof String token)) {
-                throw new IllegalStateException("Google token response invalid: " + tokenResp);
+                    .toBodilessEntity());
+        } catch (RestClientResponseException e) {
+            int status = e.getStatusCode().value();
+            if (status != 404 && status != 410) {
+                throw e;
             }
-            Number expiresIn = tokenResp.get("expires_in") instanceof Number n ? n : 3600;
-            if (connection != null) {
-                connection.setAccessToken(token);
-                connection.setTokenExpiresAt(OffsetDateTime.now().plusSeconds(expiresIn.longValue()));
-                if (tokenResp.get("refresh_token") instanceof String newRefresh && !newRefresh.isBlank()) {
-                    connection.setRefreshToken(newRefresh);
+            log.debug("Google event already gone. userId={}, eventId={}", user.getId(), eventId);
+        }
+    }
+
+    private Map<String, Object> eventPayload(
+            String title,
+            OffsetDateTime startsAt,
+            OffsetDateTime endsAt,
+            String externalLink,
+            ZoneId zoneId
+    ) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("summary", title);
+        payload.put("description", externalLink);
+        payload.put("start", Map.of(
+                "dateTime", startsAt.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                "timeZone", zoneId.getId()
+        ));
+        payload.put("end", Map.of(
+                "dateTime", endsAt.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                "timeZone", zoneId.getId()
+        ));
+        return payload;
+    }
+
+    private CreatedGoogleEvent toCreatedEvent(Map<?, ?> response, String fallbackEventId) {
+        if (response == null) {
+            return new CreatedGoogleEvent(fallbackEventId, null);
+        }
+        String id = response.get("id") instanceof String s ? s : fallbackEventId;
+        String link = response.get("htmlLink") instanceof String s ? s : null;
+        return new CreatedGoogleEvent(id, link);
+    }
+
+    public void probe(User user) {
+        googleTokenCache.invalidate(userId(user));
+        String calendarId = resolveCalendarId(user);
+        if (calendarId == null) {
+            throw new IllegalStateException("Google Calendar is not connected for user " + userId(user));
+        }
+        restClient(properties.safeApiBase()).get()
+                .uri("/calendars/{calendarId}", calendarId)
+                .header("Authorization", "Bearer " + googleTokenCache.accessToken(userId(user)))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private <T> T tracked(User user, boolean eventScoped, Supplier<T> call) {
+        try {
+            T result = call.get();
+            connectionHealth.recordSuccess(userId(user));
+            return result;
+        } catch (RestClientResponseException e) {
+            if (!eventScoped || e.getStatusCode().value() != 404) {
+                connectionHealth.recordFailure(userId(user), e);
+            }
+            throw e;
+        }
+    }
+
+    private void requireAvailable(User user) {
+        if (!connectionHealth.isAvailable(userId(user))) {
+            throw new IllegalStateException("Google connection is suspended for user " + userId(user));
+        }
+    }
+
+    private UUID userId(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    private String requireCalendarId(User user) {
+        requireAvailable(user);
+        String calendarId = resolveCalendarId(user);
+        if (calendarId == null) {
+            throw new IllegalStateException("Google Calendar is not connected for user " + (user == null ? null : user.getId()));
+        }
+        return calendarId;
+    }
+
+    private String requireAccessToken(User user) {
+        String accessToken = resolveAccessToken(user);
+        if (accessToken == null) {
+            throw new IllegalStateException("Google access token is unavailable for user " + (user == null ? null : user.getId()));
+        }
+        return accessToken;
+    }
+
+    public String calendarIdFor(User user) {
+        return resolveCalendarId(user);
+    }
+
+    public EventChangesPage listEventChanges(
+            User user,
+            String calendarId,
+            String syncToken,
+            String pageToken,
+            OffsetDateTime timeMin
+    ) {
+        requireAvailable(user);
+        String accessToken = resolveAccessToken(user);
+        if (calendarId == null || accessToken == null) {
+            throw new IllegalStateException("Google Calendar is not available for user " + (user == null ? null : user.getId()));
+        }
+
+        RestClient client = restClient(properties.safeApiBase());
+        Map<?, ?> response = tracked(user, false, () -> client.get()
+                .uri(uri -> {
+                    uri.pathSegment("calendars")
+                            .pathSegment(calendarId)
+                            .pathSegment("events")
+                            .queryParam("singleEvents", true)
+                            .queryParam("maxResults", 2500);
+                    if (syncToken != null) {
+                        uri.queryParam("syncToken", syncToken);
+                    } else if (timeMin != null) {
+                        uri.queryParam("timeMin", DateTimeFormatter.ISO_INSTANT.format(timeMin.toInstant()));
+                    }
+                    if (pageToken != null) {
+                        uri.queryParam("pageToken", pageToken);
+                    }
+                    return uri.build();
+                })
+                .header("Authorization", "Bearer " + accessToken)
+                .retrieve()
+                .body(Map.class));
+
+        if (response == null) {
+            return new EventChangesPage(List.of(), null, null);
+        }
+        JsonNode root = objectMapper.valueToTree(response);
+        List<EventChange> changes = new ArrayList<>();
+        JsonNode items = root.get("items");
+        if (items != null && items.isArray()) {
+            for (JsonNode item : items) {
+                String id = textOr(item, "id", null);
+                if (id == null) {
+                    continue;
+                }
+                if ("cancelled".equals(textOr(item, "status", null))) {
+                    changes.add(new EventChange(id, true, null));
+                    continue;
+                }
+                CalendarEventView event = parseEvent(item);
+                if (event != null) {
+                    changes.add(new EventChange(id, false, event));
                 }
-                userGoogleConnectionRepository.save(connection);
-                return connection.getAccessToken();
-            } else {
-                cachedAccessToken = token;
-                tokenExpiresAtEpochSec = now + expiresIn.longValue();
-                return cachedAccessToken;
             }
-        } catch (RestClientException e) {
-            throw new IllegalStateException("Google OAuth token refresh failed: " + e.getMessage(), e);
         }
+        return new EventChangesPage(changes, textOr(root, "nextPageToken", null), textOr(root, "nextSyncToken", null));
+    }
+
+    public record EventChange(String eventId, boolean cancelled, CalendarEventView event) {
+    }
+
+    public record EventChangesPage(List<EventChange> changes, String nextPageToken, String nextSyncToken) {
+    }
+
+    public WatchChannel watchEvents(
+            User user,
+            String calendarId,
+            String channelId,
+            String channelToken,
+            String address,
+            long ttlSec
+    ) {
+        requireAvailable(user);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", channelId);
+        payload.put("type", "web_hook");
+        payload.put("address", address);
+        payload.put("token", channelToken);
+        payload.put("params", Map.of("ttl", String.valueOf(ttlSec)));
+        Map<?, ?> response = tracked(user, false, () -> restClient(properties.safeApiBase()).post()
+                .uri("/calendars/{calendarId}/events/watch", calendarId)
+                .header("Authorization", "Bearer " + requireAccessToken(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload)
+                .retrieve()
+                .body(Map.class));
+        if (response == null || !(response.get("resourceId") instanceof String resourceId)) {
+            throw new IllegalStateException("Google watch response invalid: " + response);
+        }
+        OffsetDateTime expiresAt = OffsetDateTime.now().plusSeconds(ttlSec);
+        Object expiration = response.get("expiration");
+        if (expiration != null) {
+            try {
+                expiresAt = OffsetDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(expiration.toString())), ZoneOffset.UTC);
+            } catch (NumberFormatException e) {
+                log.debug("Unparseable Google channel expiration: {}", expiration);
+            }
+        }
+        return new WatchChannel(channelId, resourceId, expiresAt);
+    }
+
+    public void stopChannel(User user, String channelId, String resourceId) {
+        try {
+            restClient(properties.safeApiBase()).post()
+                    .uri("/channels/stop")
+                    .header("Authorization", "Bearer " + requireAccessToken(user))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("id", channelId, "resourceId", resourceId))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() != 404) {
+                throw e;
+            }
+            log.debug("Google channel already stopped. userId={}, channelId={}", userId(user), channelId);
+        }
+    }
+
+    public record WatchChannel(String channelId, String resourceId, OffsetDateTime expiresAt) {
     }
 
     private String resolveCalendarId(User user) {
-        String calendarId = userGoogleConnectionRepository.findByUser(user)
-                .map(UserGoogleConnection::getCalendarId)
-                .filter(id -> id != null && !id.isBlank())
-                .orElseGet(() -> {
-                    if (properties.isGlobalCalendarConfigured()) {
-                        return properties.calendarId();
-                    }
-                    return null;
-                });
+        String calendarId = connectionContext.get(userId(user)).calendarId();
+        if (calendarId == null && properties.isGlobalCalendarConfigured()) {
+            calendarId = properties.calendarId();
+        }
         if (calendarId == null) {
             return null;
         }
@@ -298,16 +581,10 @@ public class GoogleCalendarService {
 
     private String resolveAccessToken(User user) {
         try {
-            UserGoogleConnection connection = userGoogleConnectionRepository.findByUser(user).orElse(null);
-            if (connection != null && connection.getRefreshToken() != null && !connection.getRefreshToken().isBlank()) {
-                return getAccessToken(connection);
-            }
-            if (properties.isGlobalCalendarConfigured()) {
-                return getAccessToken(null);
-            }
-            return null;
+            return googleTokenCache.accessToken(user == null ? null : user.getId());
         } catch (Exception e) {
-            log.error("Failed to resolve Google access token for user {}: {}", user.getId(), e.getMessage());
+            connectionHealth.recordFailure(userId(user), e);
+            log.error("Failed to resolve Google access token for user {}: {}", userId(user), e.getMessage());
             return null;
         }
     }
@@ -320,6 +597,7 @@ public class GoogleCalendarService {
             userGoogleConnectionRepository.findByUser(user).ifPresent(connection -> {
                 connection.setCalendarId(calendarId);
                 userGoogleConnectionRepository.save(connection);
+                connectionContext.invalidate(user.getId());
             });
         } catch (Exception e) {
             log.warn("Failed to persist Google calendarId fallback. userId={}, error={}", user.getId(), e.getMessage());
@@ -339,21 +617,27 @@ public class GoogleCalendarService {
 
         List<CalendarEventView> list = new ArrayList<>();
         for (JsonNode item : items) {
-            String summary = textOr(item, "summary", "Без названия");
-            String htmlLink = textOr(item, "htmlLink", null);
-
-            OffsetDateTime start = parseGoogleDateNode(item.path("start"));
-            OffsetDateTime end = parseGoogleDateNode(item.path("end"));
-            if (start == null || end == null) {
-                continue;
+            CalendarEventView event = parseEvent(item);
+            if (event != null) {
+                list.add(event);
             }
-
-            list.add(new CalendarEventView(summary, start, end, "google", htmlLink));
         }
 
         return list;
     }
 
+    private CalendarEventView parseEvent(JsonNode item) {
+        String summary = textOr(item, "summary", "Без названия");
+        String htmlLink = textOr(item, "htmlLink", null);
+
+        OffsetDateTime start = parseGoogleDateNode(item.path("start"));
+        OffsetDateTime end = parseGoogleDateNode(item.path("end"));
+        if (start == null || end == null) {
+            return null;
+        }
+        return new CalendarEventView(summary, start, end, "google", htmlLink);
+    }
+
     private OffsetDateTime parseGoogleDateNode(JsonNode node) {
         JsonNode dateTimeNode = node.get("dateTime");
         if (dateTimeNode != null && !dateTimeNode.isNull()) {
@@ -382,4 +666,18 @@ public class GoogleCalendarService {
         String text = value.asText();
         return text == null || text.isBlank() ? fallback : text;
     }
+
+    private RestClient restClient(String baseUrl) {
+        return RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build();
+    }
+
+    private static JdkClientHttpRequestFactory createRequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(READ_TIMEOUT);
+        return factory;
+    }
 }
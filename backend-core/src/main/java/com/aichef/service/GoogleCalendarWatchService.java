@@ -0,0 +1,211 @@
+package com.aichef.service;
+
+import com.aichef.config.TelegramProperties;
+import com.aichef.domain.model.GoogleCalendarWatchChannel;
+import com.aichef.domain.model.User;
+import com.aichef.repository.GoogleCalendarWatchChannelRepository;
+import com.aichef.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class GoogleCalendarWatchService {
+
+    public static final String PUSH_PATH = "/api/google/calendar/push";
+
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final GoogleCalendarWatchChannelRepository channelRepository;
+    private final UserRepository userRepository;
+    private final TelegramProperties telegramProperties;
+    private final boolean enabled;
+    private final String address;
+    private final long ttlSec;
+    private final long renewAheadSec;
+    private final long baseBackoffSec;
+    private final long maxBackoffSec;
+
+    public GoogleCalendarWatchService(
+            GoogleCalendarService googleCalendarService,
+            GoogleCalendarMirrorService googleCalendarMirrorService,
+            GoogleConnectionHealthService connectionHealth,
+            GoogleCalendarWatchChannelRepository channelRepository,
+            UserRepository userRepository,
+            TelegramProperties telegramProperties,
+            @Value("${app.google.watch.enabled:false}") boolean enabled,
+            @Value("${app.google.watch.address:}") String address,
+            @Value("${app.google.watch.ttl-sec:604800}") long ttlSec,
+            @Value("${app.google.watch.renew-ahead-sec:86400}") long renewAheadSec,
+            @Value("${app.google.watch.base-backoff-sec:300}") long baseBackoffSec,
+            @Value("${app.google.watch.max-backoff-sec:21600}") long maxBackoffSec) {
+        this.googleCalendarService = googleCalendarService;
+        this.googleCalendarMirrorService = googleCalendarMirrorService;
+        this.connectionHealth = connectionHealth;
+        this.channelRepository = channelRepository;
+        this.userRepository = userRepository;
+        this.telegramProperties = telegramProperties;
+        this.enabled = enabled;
+        this.address = address == null ? "" : address.trim();
+        this.ttlSec = Math.max(300, ttlSec);
+        this.renewAheadSec = Math.min(this.ttlSec / 2, Math.max(60, renewAheadSec));
+        this.baseBackoffSec = Math.max(10, baseBackoffSec);
+        this.maxBackoffSec = Math.max(this.baseBackoffSec, maxBackoffSec);
+    }
+
+    public boolean isEnabled() {
+        return enabled
+                && googleCalendarService.isEnabled()
+                && googleCalendarMirrorService.isEnabled()
+                && resolveAddress() != null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.google.watch.check-interval-ms:60000}")
+    public void renewChannels() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (UUID userId : channelRepository.findConnectedUserIdsWithoutChannel()) {
+            GoogleCalendarWatchChannel channel = new GoogleCalendarWatchChannel();
+            channel.setUserId(userId);
+            register(channel);
+        }
+        for (GoogleCalendarWatchChannel channel : channelRepository.findTop50ByRenewAtLessThanEqualOrderByRenewAtAsc(OffsetDateTime.now())) {
+            register(channel);
+        }
+    }
+
+    public boolean handleNotification(String channelId, String resourceId, String resourceState, String channelToken) {
+        if (channelId == null || channelId.isBlank()) {
+            return false;
+        }
+        GoogleCalendarWatchChannel channel = channelRepository.findByChannelId(channelId).orElse(null);
+        if (channel == null) {
+            log.debug("Google push for unknown channel ignored. channelId={}", channelId);
+            return false;
+        }
+        if (!matches(channel.getChannelToken(), channelToken) || !matches(channel.getResourceId(), resourceId)) {
+            log.warn("Google push with mismatched token or resource ignored. userId={}, channelId={}",
+                    channel.getUserId(), channelId);
+            return false;
+        }
+        if ("sync".equals(resourceState)) {
+            return true;
+        }
+        channel.setLastNotifiedAt(OffsetDateTime.now());
+        channelRepository.save(channel);
+        googleCalendarMirrorService.markDirty(channel.getUserId());
+        return true;
+    }
+
+    public void reset(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            channelRepository.findById(userId).ifPresent(channel -> {
+                channel.setRenewAt(OffsetDateTime.now());
+                channel.setFailureCount(0);
+                channelRepository.save(channel);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to reset Google watch channel. userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    private void register(GoogleCalendarWatchChannel channel) {
+        UUID userId = channel.getUserId();
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime suspendedUntil = connectionHealth.suspendedUntil(userId);
+        if (suspendedUntil != null) {
+            channel.setRenewAt(suspendedUntil);
+            channelRepository.save(channel);
+            return;
+        }
+        User user = userRepository.findById(userId).orElse(null);
+        String calendarId = user == null ? null : googleCalendarService.calendarIdFor(user);
+        if (calendarId == null) {
+            markFailed(channel, now, "Google Calendar is not connected.");
+            channelRepository.save(channel);
+            return;
+        }
+
+        String previousChannelId = channel.getChannelId();
+        String previousResourceId = channel.getResourceId();
+        String channelId = UUID.randomUUID().toString();
+        String channelToken = UUID.randomUUID().toString().replace("-", "");
+        try {
+            GoogleCalendarService.WatchChannel watch = googleCalendarService.watchEvents(
+                    user, calendarId, channelId, channelToken, resolveAddress(), ttlSec);
+            channel.setCalendarId(calendarId);
+            channel.setChannelId(watch.channelId());
+            channel.setResourceId(watch.resourceId());
+            channel.setChannelToken(channelToken);
+            channel.setExpiresAt(watch.expiresAt());
+            channel.setRenewAt(watch.expiresAt().minusSeconds(renewAheadSec));
+            channel.setFailureCount(0);
+            channel.setLastError(null);
+            log.debug("Google watch channel registered. userId={}, channelId={}, expiresAt={}",
+                    userId, channelId, watch.expiresAt());
+        } catch (Exception e) {
+            markFailed(channel, now, e.getMessage());
+            channelRepository.save(channel);
+            return;
+        }
+        channelRepository.save(channel);
+        googleCalendarMirrorService.requestSync(userId);
+
+        if (previousChannelId != null && previousResourceId != null) {
+            try {
+                googleCalendarService.stopChannel(user, previousChannelId, previousResourceId);
+            } catch (Exception e) {
+                log.warn("Failed to stop previous Google watch channel. userId={}, channelId={}, error={}",
+                        userId, previousChannelId, e.getMessage());
+            }
+        }
+    }
+
+    private void markFailed(GoogleCalendarWatchChannel channel, OffsetDateTime now, String error) {
+        int failures = channel.getFailureCount() + 1;
+        long backoff = Math.min(maxBackoffSec, baseBackoffSec << Math.min(failures - 1, 20));
+        OffsetDateTime retryAt = now.plusSeconds(backoff);
+        if (channel.getExpiresAt() != null && channel.getExpiresAt().isAfter(now)) {
+            OffsetDateTime beforeExpiry = channel.getExpiresAt().minusSeconds(baseBackoffSec);
+            if (beforeExpiry.isAfter(now) && beforeExpiry.isBefore(retryAt)) {
+                retryAt = beforeExpiry;
+            }
+        }
+        channel.setFailureCount(failures);
+        channel.setLastError(error);
+        channel.setRenewAt(retryAt);
+        log.warn("Google watch channel registration failed. userId={}, failures={}, retryAt={}, error={}",
+                channel.getUserId(), failures, retryAt, error);
+    }
+
+    private String resolveAddress() {
+        if (!address.isBlank()) {
+            return address;
+        }
+        String baseUrl = telegramProperties.publicBaseUrl();
+        if (baseUrl == null || !baseUrl.trim().startsWith("https://")) {
+            return null;
+        }
+        String trimmed = baseUrl.trim();
+        return (trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed) + PUSH_PATH;
+    }
+
+    private boolean matches(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
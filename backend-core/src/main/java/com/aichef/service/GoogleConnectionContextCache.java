@@ -0,0 +1,101 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.GoogleBreakerState;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class GoogleConnectionContextCache {
+
+    private final UserGoogleConnectionRepository connectionRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<UUID, CachedContext> contexts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public GoogleConnectionContextCache(
+            UserGoogleConnectionRepository connectionRepository,
+            @Value("${app.google.connection-cache.ttl-ms:30000}") long ttlMs,
+            @Value("${app.google.connection-cache.max-entries:10000}") int maxEntries) {
+        this.connectionRepository = connectionRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs));
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public ConnectionContext get(UUID userId) {
+        if (userId == null) {
+            return ConnectionContext.MISSING;
+        }
+        long now = System.nanoTime();
+        CachedContext cached = contexts.get(userId);
+        if (cached != null && now - cached.loadedAtNanos() < ttlNanos) {
+            return cached.context();
+        }
+        long loadGeneration = generation.get();
+        ConnectionContext context = connectionRepository.findById(userId)
+                .map(ConnectionContext::of)
+                .orElse(ConnectionContext.MISSING);
+        if (ttlNanos > 0) {
+            if (contexts.size() >= maxEntries) {
+                contexts.entrySet().removeIf(entry -> now - entry.getValue().loadedAtNanos() >= ttlNanos);
+            }
+            if (contexts.size() < maxEntries && generation.get() == loadGeneration) {
+                contexts.put(userId, new CachedContext(context, now));
+            }
+        }
+        return context;
+    }
+
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        contexts.remove(userId);
+    }
+
+    public record ConnectionContext(
+            boolean present,
+            String calendarId,
+            boolean hasRefreshToken,
+            boolean hasAccessToken,
+            GoogleBreakerState breakerState,
+            OffsetDateTime breakerNextProbeAt
+    ) {
+        private static final ConnectionContext MISSING = new ConnectionContext(false, null, false, false, null, null);
+
+        private static ConnectionContext of(UserGoogleConnection connection) {
+            String calendarId = connection.getCalendarId() == null || connection.getCalendarId().isBlank()
+                    ? null
+                    : connection.getCalendarId().trim();
+            return new ConnectionContext(
+                    true,
+                    calendarId,
+                    connection.getRefreshToken() != null && !connection.getRefreshToken().isBlank(),
+                    connection.getAccessToken() != null && !connection.getAccessToken().isBlank(),
+                    connection.getBreakerState(),
+                    connection.getBreakerNextProbeAt()
+            );
+        }
+
+        public boolean isUsable() {
+            return hasRefreshToken || hasAccessToken;
+        }
+
+        public boolean isBroken() {
+            return breakerState != null && breakerState != GoogleBreakerState.CLOSED;
+        }
+    }
+
+    private record CachedContext(ConnectionContext context, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.GoogleBreakerState;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class GoogleConnectionHealthService {
+
+    private static final Set<String> FORBIDDEN_CONNECTION_REASONS = Set.of(
+            "forbidden", "insufficientPermissions", "authError", "notACalendarUser");
+    private static final Set<String> FORBIDDEN_CONNECTION_STATUSES = Set.of("PERMISSION_DENIED", "UNAUTHENTICATED");
+
+    private final UserGoogleConnectionRepository connectionRepository;
+    private final GoogleConnectionContextCache connectionContext;
+    private final ObjectMapper objectMapper;
+    private final long probeIntervalSec;
+    private final long maxProbeIntervalSec;
+
+    public GoogleConnectionHealthService(
+            UserGoogleConnectionRepository connectionRepository,
+            GoogleConnectionContextCache connectionContext,
+            ObjectMapper objectMapper,
+            @Value("${app.google.breaker.probe-interval-sec:300}") long probeIntervalSec,
+            @Value("${app.google.breaker.max-probe-interval-sec:21600}") long maxProbeIntervalSec) {
+        this.connectionRepository = connectionRepository;
+        this.connectionContext = connectionContext;
+        this.objectMapper = objectMapper;
+        this.probeIntervalSec = Math.max(10, probeIntervalSec);
+        this.maxProbeIntervalSec = Math.max(this.probeIntervalSec, maxProbeIntervalSec);
+    }
+
+    public boolean isAvailable(UUID userId) {
+        return suspendedUntil(userId) == null;
+    }
+
+    public OffsetDateTime suspendedUntil(UUID userId) {
+        if (userId == null) {
+            return null;
+        }
+        GoogleConnectionContextCache.ConnectionContext context = connectionContext.get(userId);
+        if (!context.isBroken()) {
+            return null;
+        }
+        OffsetDateTime nextProbeAt = context.breakerNextProbeAt();
+        return nextProbeAt == null || nextProbeAt.isBefore(OffsetDateTime.now())
+                ? OffsetDateTime.now().plusSeconds(probeIntervalSec)
+                : nextProbeAt;
+    }
+
+    public void recordSuccess(UUID userId) {
+        if (userId == null || !connectionContext.get(userId).isBroken()) {
+            return;
+        }
+        connectionRepository.findById(userId)
+                .filter(this::isBroken)
+                .ifPresent(connection -> {
+                    close(connection);
+                    connectionRepository.save(connection);
+                    connectionContext.invalidate(userId);
+                    log.info("Google connection recovered. userId={}", userId);
+                });
+    }
+
+    public void recordFailure(UUID userId, Throwable error) {
+        if (userId != null && isConnectionFailure(error)) {
+            open(userId, error);
+        }
+    }
+
+    public void recordProbeFailure(UUID userId, Throwable error) {
+        if (userId != null) {
+            open(userId, error);
+        }
+    }
+
+    public void markProbing(UUID userId) {
+        connectionRepository.updateBreakerState(userId, GoogleBreakerState.HALF_OPEN);
+        connectionContext.invalidate(userId);
+    }
+
+    public void reset(UserGoogleConnection connection) {
+        close(connection);
+    }
+
+    public boolean isConnectionFailure(Throwable error) {
+        RestClientResponseException response = findResponseException(error);
+        if (response == null) {
+            return false;
+        }
+        int status = response.getStatusCode().value();
+        String body = response.getResponseBodyAsString();
+        if (status == 403) {
+            return isForbiddenConnection(body);
+        }
+        return status == 401 || status == 404 || (status == 400 && body != null && body.contains("invalid_grant"));
+    }
+
+    private boolean isForbiddenConnection(String body) {
+        if (body == null || body.isBlank()) {
+            return false;
+        }
+        JsonNode error;
+        try {
+            error = objectMapper.readTree(body).path("error");
+        } catch (Exception e) {
+            return false;
+        }
+        JsonNode errors = error.path("errors");
+        if (errors.isArray() && !errors.isEmpty()) {
+            for (JsonNode item : errors) {
+                if (!FORBIDDEN_CONNECTION_REASONS.contains(item.path("reason").asText(""))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return FORBIDDEN_CONNECTION_STATUSES.contains(error.path("status").asText(""));
+    }
+
+    private void open(UUID userId, Throwable error) {
+        UserGoogleConnection connection = connectionRepository.findById(userId).orElse(null);
+        if (connection == null) {
+            return;
+        }
+        boolean wasClosed = !isBroken(connection);
+        int openCount = (connection.getBreakerOpenCount() == null ? 0 : connection.getBreakerOpenCount()) + 1;
+        long backoff = Math.min(maxProbeIntervalSec, probeIntervalSec << Math.min(openCount - 1, 20));
+        connection.setBreakerState(GoogleBreakerState.OPEN);
+        connection.setBreakerOpenCount(openCount);
+        connection.setBreakerNextProbeAt(OffsetDateTime.now().plusSeconds(backoff));
+        connection.setBreakerLastError(describe(error));
+        if (wasClosed) {
+            connection.setBreakerOpenedAt(OffsetDateTime.now());
+        }
+        if (connection.getBreakerNotifiedAt() == null) {
+            connection.setBreakerNotifyPending(true);
+        }
+        connectionRepository.save(connection);
+        connectionContext.invalidate(userId);
+        if (wasClosed) {
+            log.warn("Google connection suspended. userId={}, probeInSec={}, error={}", userId, backoff, describe(error));
+        } else {
+            log.debug("Google connection probe failed. userId={}, openCount={}, probeInSec={}", userId, openCount, backoff);
+        }
+    }
+
+    private boolean isBroken(UserGoogleConnection connection) {
+        return connection.getBreakerState() != null && connection.getBreakerState() != GoogleBreakerState.CLOSED;
+    }
+
+    private void close(UserGoogleConnection connection) {
+        connection.setBreakerState(GoogleBreakerState.CLOSED);
+        connection.setBreakerOpenCount(0);
+        connection.setBreakerOpenedAt(null);
+        connection.setBreakerNextProbeAt(null);
+        connection.setBreakerLastError(null);
+        connection.setBreakerNotifyPending(false);
+        connection.setBreakerNotifiedAt(null);
+    }
+
+    private RestClientResponseException findResponseException(Throwable error) {
+        Throwable current = error;
+        while (current != null) {
+            if (current instanceof RestClientResponseException response) {
+                return response;
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+
+    private String describe(Throwable error) {
+        RestClientResponseException response = findResponseException(error);
+        if (response != null) {
+            return "status=" + response.getStatusCode() + ", body=" + response.getResponseBodyAsString();
+        }
+        return error == null ? null : error.getMessage();
+    }
+}
@@ -0,0 +1,70 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.GoogleBreakerState;
+import com.aichef.domain.model.User;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import com.aichef.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleConnectionProbeWorker {
+
+    private final UserGoogleConnectionRepository connectionRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
+    private final TelegramBotService telegramBotService;
+
+    @Scheduled(fixedDelayString = "${app.google.breaker.probe-check-interval-ms:60000}")
+    public void probeSuspendedConnections() {
+        if (!googleCalendarService.isEnabled()) {
+            return;
+        }
+        notifySuspendedUsers();
+
+        List<UserGoogleConnection> due = connectionRepository.findTop50ByBreakerStateInAndBreakerNextProbeAtLessThanEqual(
+                List.of(GoogleBreakerState.OPEN, GoogleBreakerState.HALF_OPEN), OffsetDateTime.now());
+        for (UserGoogleConnection connection : due) {
+            User user = userRepository.findById(connection.getUserId()).orElse(null);
+            if (user == null) {
+                continue;
+            }
+            connectionHealth.markProbing(user.getId());
+            try {
+                googleCalendarService.probe(user);
+                connectionHealth.recordSuccess(user.getId());
+                googleCalendarMirrorService.requestSync(user.getId());
+            } catch (Exception e) {
+                connectionHealth.recordProbeFailure(user.getId(), e);
+            }
+        }
+    }
+
+    private void notifySuspendedUsers() {
+        for (UserGoogleConnection connection : connectionRepository.findTop50ByBreakerNotifyPendingTrue()) {
+            User user = userRepository.findById(connection.getUserId()).orElse(null);
+            if (user != null && user.getTelegramId() != null) {
+                try {
+                    telegramBotService.sendMessage(user.getTelegramId(),
+                            "⚠️ Google Calendar недоступен: доступ отозван или календарь удалён. "
+                                    + "Синхронизация приостановлена, нажмите «🔗 Переподключить Google», чтобы восстановить её.");
+                } catch (Exception e) {
+                    log.warn("Failed to notify user about suspended Google connection. userId={}, error={}",
+                            user.getId(), e.getMessage());
+                    continue;
+                }
+            }
+            connectionRepository.markBreakerNotified(connection.getUserId(), OffsetDateTime.now());
+        }
+    }
+}
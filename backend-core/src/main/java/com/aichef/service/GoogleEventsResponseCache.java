@@ -0,0 +1,60 @@
+package com.aichef.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class GoogleEventsResponseCache {
+
+    private final boolean enabled;
+    private final Map<Key, Entry> entries;
+
+    public GoogleEventsResponseCache(
+            @Value("${app.google.events-cache.enabled:true}") boolean enabled,
+            @Value("${app.google.events-cache.max-entries:1000}") int maxEntries) {
+        this.enabled = enabled;
+        int capacity = Math.max(1, maxEntries);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    public Entry get(Key key) {
+        return enabled ? entries.get(key) : null;
+    }
+
+    public void put(Key key, String etag, List<CalendarEventView> events) {
+        if (!enabled) {
+            return;
+        }
+        if (etag == null || etag.isBlank()) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry(etag, List.copyOf(events)));
+    }
+
+    public void invalidateUser(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> userId.equals(key.userId()));
+        }
+    }
+
+    public record Key(UUID userId, String calendarId, String timeMin, String timeMax) {
+    }
+
+    public record Entry(String etag, List<CalendarEventView> events) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.GoogleExportJobStatus;
+import com.aichef.domain.enums.MeetingStatus;
+import com.aichef.domain.model.GoogleExportJob;
+import com.aichef.domain.model.User;
+import com.aichef.repository.GoogleExportJobRepository;
+import com.aichef.repository.MeetingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleExportService {
+
+    static final OffsetDateTime CURSOR_START = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    static final UUID CURSOR_START_ID = new UUID(0, 0);
+
+    private final GoogleExportJobRepository jobRepository;
+    private final MeetingRepository meetingRepository;
+    private final GoogleCalendarService googleCalendarService;
+
+    @Transactional
+    public void start(User user) {
+        if (user == null || !googleCalendarService.isEnabled()) {
+            return;
+        }
+        long unexported = meetingRepository.countUnexported(user, MeetingStatus.CANCELED);
+        GoogleExportJob job = jobRepository.findFirstByUserIdAndStatus(user.getId(), GoogleExportJobStatus.PENDING).orElse(null);
+        if (unexported == 0 && job == null) {
+            return;
+        }
+        if (job == null) {
+            job = new GoogleExportJob();
+            job.setUserId(user.getId());
+        }
+        job.setTotalCount(job.getExportedCount() + job.getFailedCount() + (int) unexported);
+        job.setCursorStartsAt(CURSOR_START);
+        job.setCursorMeetingId(CURSOR_START_ID);
+        job.setRetryCount(0);
+        job.setNextRunAt(OffsetDateTime.now());
+        jobRepository.save(job);
+        log.info("Google export job queued. userId={}, jobId={}, meetings={}", user.getId(), job.getId(), unexported);
+    }
+}
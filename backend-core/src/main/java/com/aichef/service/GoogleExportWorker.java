@@ -0,0 +1,239 @@
+package com.aichef.service;
+
+import com.aichef.domain.enums.GoogleExportJobStatus;
+import com.aichef.domain.enums.MeetingStatus;
+import com.aichef.domain.model.GoogleExportJob;
+import com.aichef.domain.model.Meeting;
+import com.aichef.domain.model.User;
+import com.aichef.repository.GoogleExportJobRepository;
+import com.aichef.repository.MeetingRepository;
+import com.aichef.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class GoogleExportWorker {
+
+    private final GoogleExportJobRepository jobRepository;
+    private final MeetingRepository meetingRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final TelegramBotService telegramBotService;
+    private final int batchSize;
+    private final int batchesPerRun;
+    private final int maxRetries;
+    private final long baseBackoffSec;
+    private final long maxBackoffSec;
+
+    public GoogleExportWorker(
+            GoogleExportJobRepository jobRepository,
+            MeetingRepository meetingRepository,
+            UserRepository userRepository,
+            GoogleCalendarService googleCalendarService,
+            GoogleCalendarMirrorService googleCalendarMirrorService,
+            GoogleConnectionHealthService connectionHealth,
+            TelegramBotService telegramBotService,
+            @Value("${app.google.export.batch-size:50}") int batchSize,
+            @Value("${app.google.export.batches-per-run:4}") int batchesPerRun,
+            @Value("${app.google.export.max-retries:8}") int maxRetries,
+            @Value("${app.google.export.base-backoff-sec:30}") long baseBackoffSec,
+            @Value("${app.google.export.max-backoff-sec:1800}") long maxBackoffSec) {
+        this.jobRepository = jobRepository;
+        this.meetingRepository = meetingRepository;
+        this.userRepository = userRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.googleCalendarMirrorService = googleCalendarMirrorService;
+        this.connectionHealth = connectionHealth;
+        this.telegramBotService = telegramBotService;
+        this.batchSize = Math.max(1, Math.min(1000, batchSize));
+        this.batchesPerRun = Math.max(1, batchesPerRun);
+        this.maxRetries = Math.max(1, maxRetries);
+        this.baseBackoffSec = Math.max(1, baseBackoffSec);
+        this.maxBackoffSec = Math.max(this.baseBackoffSec, maxBackoffSec);
+    }
+
+    @Scheduled(fixedDelayString = "${app.google.export.poll-interval-ms:5000}")
+    public void runDueJobs() {
+        if (!googleCalendarService.isEnabled()) {
+            return;
+        }
+        for (GoogleExportJob job : jobRepository.findTop10ByStatusAndNextRunAtLessThanEqualOrderByNextRunAtAsc(
+                GoogleExportJobStatus.PENDING, OffsetDateTime.now())) {
+            try {
+                run(job);
+            } catch (Exception e) {
+                log.error("Google export job crashed. jobId={}, error={}", job.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void run(GoogleExportJob job) {
+        User user = userRepository.findById(job.getUserId()).orElse(null);
+        if (user == null) {
+            job.setStatus(GoogleExportJobStatus.FAILED);
+            job.setLastError("user not found");
+            job.setCompletedAt(OffsetDateTime.now());
+            jobRepository.save(job);
+            return;
+        }
+        OffsetDateTime suspendedUntil = connectionHealth.suspendedUntil(user.getId());
+        if (suspendedUntil != null) {
+            job.setNextRunAt(suspendedUntil);
+            jobRepository.save(job);
+            return;
+        }
+        ZoneId zoneId = resolveZone(user.getTimezone());
+
+        for (int run = 0; run < batchesPerRun; run++) {
+            List<Meeting> meetings = meetingRepository.findUnexportedAfter(
+                    user, MeetingStatus.CANCELED, job.getCursorStartsAt(), job.getCursorMeetingId(), PageRequest.of(0, batchSize));
+            if (meetings.isEmpty()) {
+                finish(job, user);
+                return;
+            }
+            if (!exportBatch(job, user, meetings, zoneId)) {
+                return;
+            }
+        }
+        jobRepository.save(job);
+    }
+
+    private boolean exportBatch(GoogleExportJob job, User user, List<Meeting> meetings, ZoneId zoneId) {
+        Map<UUID, Meeting> byId = new HashMap<>();
+        List<GoogleCalendarService.BatchInsert> inserts = new ArrayList<>(meetings.size());
+        for (Meeting meeting : meetings) {
+            byId.put(meeting.getId(), meeting);
+            inserts.add(new GoogleCalendarService.BatchInsert(
+                    meeting.getId(),
+                    CalendarOutboxService.eventIdFor(meeting.getId()),
+                    meeting.getTitle(),
+                    meeting.getStartsAt(),
+                    meeting.getEndsAt(),
+                    meeting.getExternalLink()
+            ));
+        }
+
+        List<GoogleCalendarService.BatchInsertResult> results;
+        try {
+            results = googleCalendarService.batchInsertEvents(user, inserts, zoneId);
+        } catch (RestClientResponseException e) {
+            return retryLater(job, user, "status=" + e.getStatusCode() + ", body=" + e.getResponseBodyAsString());
+        } catch (Exception e) {
+            return retryLater(job, user, e.getMessage());
+        }
+
+        String retryableError = null;
+        for (GoogleCalendarService.BatchInsertResult result : results) {
+            Meeting meeting = byId.get(result.meetingId());
+            boolean created = result.status() / 100 == 2 || result.status() == 409;
+            if (created) {
+                String htmlLink = result.htmlLink() == null || result.htmlLink().isBlank() ? null : result.htmlLink();
+                meetingRepository.backfillGoogleEvent(meeting.getId(), result.eventId(), htmlLink);
+                job.setExportedCount(job.getExportedCount() + 1);
+            } else if (isRetryable(result.status())) {
+                if (retryableError == null) {
+                    retryableError = "status=" + result.status() + ", body=" + result.error();
+                }
+                continue;
+            } else if (retryableError == null) {
+                job.setFailedCount(job.getFailedCount() + 1);
+                log.warn("Google export skipped meeting. jobId={}, meetingId={}, status={}, error={}",
+                        job.getId(), meeting.getId(), result.status(), result.error());
+            }
+            if (retryableError == null) {
+                job.setCursorStartsAt(meeting.getStartsAt());
+                job.setCursorMeetingId(meeting.getId());
+            }
+        }
+        googleCalendarMirrorService.requestSync(user.getId());
+        if (retryableError != null) {
+            return retryLater(job, user, retryableError);
+        }
+        job.setRetryCount(0);
+        job.setLastError(null);
+        jobRepository.save(job);
+        log.info("Google export batch done. jobId={}, exported={}, failed={}, total={}",
+                job.getId(), job.getExportedCount(), job.getFailedCount(), job.getTotalCount());
+        return true;
+    }
+
+    private boolean retryLater(GoogleExportJob job, User user, String error) {
+        int retries = job.getRetryCount() + 1;
+        job.setRetryCount(retries);
+        job.setLastError(error);
+        if (retries >= maxRetries) {
+            job.setStatus(GoogleExportJobStatus.FAILED);
+            job.setCompletedAt(OffsetDateTime.now());
+            jobRepository.save(job);
+            log.error("Google export job failed. jobId={}, exported={}, total={}, error={}",
+                    job.getId(), job.getExportedCount(), job.getTotalCount(), error);
+            notifyUser(user, "⚠️ Не удалось перенести события в Google Calendar: перенесено "
+                    + job.getExportedCount() + " из " + job.getTotalCount()
+                    + ". Попробуйте переподключить Google позже.");
+            return false;
+        }
+        long backoff = Math.min(maxBackoffSec, baseBackoffSec << Math.min(retries - 1, 20));
+        job.setNextRunAt(OffsetDateTime.now().plusSeconds(backoff));
+        jobRepository.save(job);
+        log.warn("Google export batch failed, will retry. jobId={}, retries={}, retryInSec={}, error={}",
+                job.getId(), retries, backoff, error);
+        return false;
+    }
+
+    private void finish(GoogleExportJob job, User user) {
+        job.setStatus(GoogleExportJobStatus.DONE);
+        job.setCompletedAt(OffsetDateTime.now());
+        jobRepository.save(job);
+        log.info("Google export job finished. jobId={}, exported={}, failed={}",
+                job.getId(), job.getExportedCount(), job.getFailedCount());
+        if (job.getExportedCount() == 0 && job.getFailedCount() == 0) {
+            return;
+        }
+        String text = "✅ Перенос в Google Calendar завершён: " + job.getExportedCount() + " событий.";
+        if (job.getFailedCount() > 0) {
+            text += "\n⚠️ Не удалось перенести: " + job.getFailedCount() + ".";
+        }
+        notifyUser(user, text);
+    }
+
+    private void notifyUser(User user, String text) {
+        if (user.getTelegramId() == null) {
+            return;
+        }
+        try {
+            telegramBotService.sendMessage(user.getTelegramId(), text);
+        } catch (Exception e) {
+            log.warn("Failed to notify user about Google export. userId={}, error={}", user.getId(), e.getMessage());
+        }
+    }
+
+    private boolean isRetryable(int status) {
+        return status == 403 || status == 408 || status == 429 || status >= 500;
+    }
+
+    private ZoneId resolveZone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneId.of("Europe/Moscow");
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (Exception ignored) {
+            return ZoneId.of("Europe/Moscow");
+        }
+    }
+}
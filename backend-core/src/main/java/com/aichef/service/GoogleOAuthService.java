@@ -2,13 +2,10 @@ package com.aichef.service;
 
 import com.aichef.config.GoogleCalendarProperties;
 import com.aichef.config.TelegramProperties;
-import com.aichef.domain.enums.MeetingStatus;
 import com.aichef.domain.model.GoogleOAuthState;
-import com.aichef.domain.model.Meeting;
 import com.aichef.domain.model.User;
 import com.aichef.domain.model.UserGoogleConnection;
 import com.aichef.repository.GoogleOAuthStateRepository;
-import com.aichef.repository.MeetingRepository;
 import com.aichef.repository.UserGoogleConnectionRepository;
 import com.aichef.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -24,9 +21,7 @@ import org.springframework.web.client.RestClient;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.time.ZoneId;
 import java.util.Base64;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -44,8 +39,13 @@ public class GoogleOAuthService {
     private final GoogleOAuthStateRepository stateRepository;
     private final UserRepository userRepository;
     private final UserGoogleConnectionRepository connectionRepository;
-    private final MeetingRepository meetingRepository;
-    private final GoogleCalendarService googleCalendarService;
+    private final GoogleTokenCache googleTokenCache;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
+    private final GoogleExportService googleExportService;
+    private final GoogleConnectionHealthService connectionHealth;
+    private final GoogleEventsResponseCache eventsResponseCache;
+    private final GoogleCalendarWatchService googleCalendarWatchService;
+    private final GoogleConnectionContextCache connectionContext;
 
     public Optional<String> createConnectUrl(Long telegramId) {
         if (telegramId == null || !googleProperties.isOAuthConfigured()) {
@@ -130,8 +130,14 @@ public class GoogleOAuthService {
             connection.setIcsToken(UUID.randomUUID().toString().replace("-", ""));
         }
         connection.setTokenExpiresAt(OffsetDateTime.now().plusSeconds(tokenResponse.expiresIn()));
+        connectionHealth.reset(connection);
         connectionRepository.save(connection);
-        syncExistingMeetings(user);
+        connectionContext.invalidate(user.getId());
+        googleTokenCache.invalidate(user.getId());
+        eventsResponseCache.invalidateUser(user.getId());
+        googleExportService.start(user);
+        googleCalendarMirrorService.reset(user.getId());
+        googleCalendarWatchService.reset(user.getId());
 
         log.info("Google account connected for telegramId={}, email={}", telegramId, email);
         return new OAuthCallbackResult(
@@ -161,9 +167,7 @@ public class GoogleOAuthService {
         if (user == null) {
             return false;
         }
-        return connectionRepository.findByUser(user)
-                .filter(this::hasUsableConnection)
-                .isPresent();
+        return connectionContext.get(user.getId()).isUsable();
     }
 
     public boolean isConnected(Long telegramId) {
@@ -214,15 +218,6 @@ public class GoogleOAuthService {
         }
     }
 
-    private boolean hasUsableConnection(UserGoogleConnection connection) {
-        if (connection == null) {
-            return false;
-        }
-        boolean hasRefreshToken = connection.getRefreshToken() != null && !connection.getRefreshToken().isBlank();
-        boolean hasAccessToken = connection.getAccessToken() != null && !connection.getAccessToken().isBlank();
-        return hasRefreshToken || hasAccessToken;
-    }
-
     private TokenResponse exchangeCodeForToken(String code) {
         RestClient tokenClient = RestClient.builder().baseUrl(googleProperties.safeTokenUri()).build();
         String redirectUri = buildRedirectUri();
@@ -266,52 +261,6 @@ public class GoogleOAuthService {
         return email instanceof String s ? s : null;
     }
 
-    private void syncExistingMeetings(User user) {
-        if (user == null || !googleCalendarService.isEnabled()) {
-            return;
-        }
-        ZoneId zoneId = resolveZone(user.getTimezone());
-        List<Meeting> meetings = meetingRepository.findByCalendarDay_UserOrderByStartsAtAsc(user);
-        for (Meeting meeting : meetings) {
-            if (meeting.getStatus() == MeetingStatus.CANCELED) {
-                continue;
-            }
-            if (meeting.getGoogleEventId() != null && !meeting.getGoogleEventId().isBlank()) {
-                continue;
-            }
-            GoogleCalendarService.CreatedGoogleEvent created = googleCalendarService.createEvent(
-                    user,
-                    meeting.getTitle(),
-                    meeting.getStartsAt(),
-                    meeting.getEndsAt(),
-                    meeting.getExternalLink(),
-                    zoneId
-            );
-            if (created == null) {
-                continue;
-            }
-            if (created.eventId() != null && !created.eventId().isBlank()) {
-                meeting.setGoogleEventId(created.eventId());
-            }
-            if ((meeting.getExternalLink() == null || meeting.getExternalLink().isBlank())
-                    && created.htmlLink() != null && !created.htmlLink().isBlank()) {
-                meeting.setExternalLink(created.htmlLink());
-            }
-            meetingRepository.save(meeting);
-        }
-    }
-
-    private ZoneId resolveZone(String timezone) {
-        if (timezone == null || timezone.isBlank()) {
-            return ZoneId.of("Europe/Moscow");
-        }
-        try {
-            return ZoneId.of(timezone);
-        } catch (Exception ignored) {
-            return ZoneId.of("Europe/Moscow");
-        }
-    }
-
     private String ensureAssistantCalendar(String accessToken, String currentCalendarId) {
         if (accessToken == null || accessToken.isBlank()) {
             return currentCalendarId;
@@ -340,7 +289,7 @@ public class GoogleOAuthService {
             }
 
             try {
-                RestClient listClient = RestClient.builder().baseUrl("https://www.googleapis.com/calendar/v3").build();
+                RestClient listClient = RestClient.builder().baseUrl(googleProperties.safeApiBase()).build();
                 Map<String, Object> colorPayload = Map.of("colorId", "6");
                 listClient.patch()
                         .uri("/users/me/calendarList/{calendarId}", calendarId)
@@ -0,0 +1,221 @@
+package com.aichef.service;
+
+import com.aichef.config.GoogleCalendarProperties;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class GoogleTokenCache {
+
+    private static final UUID GLOBAL_KEY = new UUID(0, 0);
+
+    private final GoogleCalendarProperties properties;
+    private final UserGoogleConnectionRepository userGoogleConnectionRepository;
+    private final GoogleConnectionContextCache connectionContext;
+    private final long expirySkewSec;
+    private final long refreshAheadSec;
+    private final long idleEvictSec;
+    private final long missingTtlSec;
+    private final Map<UUID, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<CachedToken>> refreshing = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadPoolTaskExecutor refreshExecutor;
+
+    public GoogleTokenCache(
+            GoogleCalendarProperties properties,
+            UserGoogleConnectionRepository userGoogleConnectionRepository,
+            GoogleConnectionContextCache connectionContext,
+            @Value("${app.google.token-cache.expiry-skew-sec:60}") long expirySkewSec,
+            @Value("${app.google.token-cache.refresh-ahead-sec:300}") long refreshAheadSec,
+            @Value("${app.google.token-cache.idle-evict-sec:3600}") long idleEvictSec,
+            @Value("${app.google.token-cache.missing-ttl-sec:60}") long missingTtlSec) {
+        this.properties = properties;
+        this.userGoogleConnectionRepository = userGoogleConnectionRepository;
+        this.connectionContext = connectionContext;
+        this.expirySkewSec = Math.max(0, expirySkewSec);
+        this.refreshAheadSec = Math.max(this.expirySkewSec, refreshAheadSec);
+        this.idleEvictSec = Math.max(60, idleEvictSec);
+        this.missingTtlSec = Math.max(0, missingTtlSec);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("google-token-");
+        executor.initialize();
+        this.refreshExecutor = executor;
+    }
+
+    public String accessToken(UUID userId) {
+        if (userId == null) {
+            return properties.isGlobalCalendarConfigured() ? accessToken(GLOBAL_KEY) : null;
+        }
+        long now = nowEpochSec();
+        CachedToken cached = tokens.get(userId);
+        if (cached == null || cached.expiresAtEpochSec() - now <= expirySkewSec) {
+            cached = await(refresh(userId, expirySkewSec));
+        }
+        cached.lastUsedEpochSec().set(now);
+        if (cached.global()) {
+            return accessToken(GLOBAL_KEY);
+        }
+        return cached.accessToken();
+    }
+
+    public void invalidate(UUID userId) {
+        if (userId != null) {
+            generation.incrementAndGet();
+            tokens.remove(userId);
+            refreshing.remove(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.google.token-cache.refresh-check-interval-ms:60000}")
+    public void refreshExpiring() {
+        long now = nowEpochSec();
+        tokens.forEach((userId, cached) -> {
+            if (now - cached.lastUsedEpochSec().get() > idleEvictSec) {
+                tokens.remove(userId, cached);
+                return;
+            }
+            if (cached.accessToken() == null || cached.expiresAtEpochSec() - now > refreshAheadSec
+                    || refreshing.containsKey(userId)) {
+                return;
+            }
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(userId, refreshAheadSec).join();
+                } catch (Exception e) {
+                    log.warn("Proactive Google token refresh failed. userId={}, error={}", userId, e.getMessage());
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<CachedToken> refresh(UUID userId, long minValiditySec) {
+        CompletableFuture<CachedToken> mine = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = refreshing.putIfAbsent(userId, mine);
+        if (existing != null) {
+            return existing;
+        }
+        long loadGeneration = generation.get();
+        try {
+            CachedToken loaded = GLOBAL_KEY.equals(userId) ? refreshGlobal() : load(userId, minValiditySec);
+            CachedToken previous = tokens.get(userId);
+            if (previous != null) {
+                loaded.lastUsedEpochSec().set(previous.lastUsedEpochSec().get());
+            }
+            if (generation.get() == loadGeneration) {
+                tokens.put(userId, loaded);
+                if (generation.get() != loadGeneration) {
+                    tokens.remove(userId, loaded);
+                }
+            }
+            mine.complete(loaded);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            refreshing.remove(userId, mine);
+        }
+        return mine;
+    }
+
+    private CachedToken load(UUID userId, long minValiditySec) {
+        long now = nowEpochSec();
+        UserGoogleConnection connection = userGoogleConnectionRepository.findById(userId).orElse(null);
+        if (connection == null || connection.getRefreshToken() == null || connection.getRefreshToken().isBlank()) {
+            return new CachedToken(null, now + missingTtlSec, properties.isGlobalCalendarConfigured(), new AtomicLong(now));
+        }
+        if (connection.getAccessToken() != null
+                && connection.getTokenExpiresAt() != null
+                && connection.getTokenExpiresAt().toEpochSecond() - now > minValiditySec) {
+            return new CachedToken(connection.getAccessToken(), connection.getTokenExpiresAt().toEpochSecond(), false,
+                    new AtomicLong(now));
+        }
+
+        TokenGrant grant = requestToken(connection.getRefreshToken());
+        connection.setAccessToken(grant.accessToken());
+        connection.setTokenExpiresAt(OffsetDateTime.now().plusSeconds(grant.expiresInSec()));
+        if (grant.refreshToken() != null) {
+            connection.setRefreshToken(grant.refreshToken());
+        }
+        userGoogleConnectionRepository.save(connection);
+        connectionContext.invalidate(userId);
+        log.debug("Google access token refreshed. userId={}, expiresInSec={}", userId, grant.expiresInSec());
+        return new CachedToken(grant.accessToken(), now + grant.expiresInSec(), false, new AtomicLong(now));
+    }
+
+    private CachedToken refreshGlobal() {
+        long now = nowEpochSec();
+        TokenGrant grant = requestToken(properties.refreshToken());
+        return new CachedToken(grant.accessToken(), now + grant.expiresInSec(), false, new AtomicLong(now));
+    }
+
+    private TokenGrant requestToken(String refreshToken) {
+        RestClient tokenClient = RestClient.builder().baseUrl(properties.safeTokenUri()).build();
+        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
+        body.add("client_id", properties.clientId());
+        body.add("client_secret", properties.clientSecret());
+        body.add("refresh_token", refreshToken);
+        body.add("grant_type", "refresh_token");
+
+        try {
+            Map<?, ?> tokenResp = tokenClient.post()
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(body)
+                    .retrieve()
+                    .body(Map.class);
+            if (tokenResp == null || !(tokenResp.get("access_token") instanceof String token)) {
+                throw new IllegalStateException("Google token response invalid: " + tokenResp);
+            }
+            Number expiresIn = tokenResp.get("expires_in") instanceof Number n ? n : 3600;
+            String newRefresh = tokenResp.get("refresh_token") instanceof String r && !r.isBlank() ? r : null;
+            return new TokenGrant(token, expiresIn.longValue(), newRefresh);
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Google OAuth token refresh failed: " + e.getMessage(), e);
+        }
+    }
+
+    private CachedToken await(CompletableFuture<CachedToken> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private long nowEpochSec() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    private record CachedToken(String accessToken, long expiresAtEpochSec, boolean global, AtomicLong lastUsedEpochSec) {
+    }
+
+    private record TokenGrant(String accessToken, long expiresInSec, String refreshToken) {
+    }
+}
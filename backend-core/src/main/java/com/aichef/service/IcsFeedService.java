@@ -34,7 +34,7 @@ public class IcsFeedService {
     private final UserRepository userRepository;
     private final MeetingRepository meetingRepository;
     private final TaskItemRepository taskItemRepository;
-    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
 
     @Transactional(readOnly = true)
     public Optional<String> buildIcsByToken(String token) {
@@ -58,7 +58,7 @@ public class IcsFeedService {
         LocalDate from = LocalDate.now(zoneId).minusYears(1);
         LocalDate to = LocalDate.now(zoneId).plusYears(2);
         List<TaskItem> tasks = taskItemRepository.findByCalendarDay_UserAndCalendarDay_DayDateBetweenOrderByDueAtAsc(user, from, to);
-        List<CalendarEventView> googleEvents = googleCalendarService.listEvents(user, from, to, zoneId);
+        List<CalendarEventView> googleEvents = googleCalendarMirrorService.listEvents(user, from, to, zoneId);
 
         StringBuilder sb = new StringBuilder();
         sb.append("BEGIN:VCALENDAR\r\n");
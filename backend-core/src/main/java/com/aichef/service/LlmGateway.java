@@ -0,0 +1,398 @@
+package com.aichef.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class LlmGateway {
+
+    private static final int LATENCY_WINDOW_SIZE = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final Map<LlmProvider, Semaphore> permits = new EnumMap<>(LlmProvider.class);
+    private final Map<LlmProvider, LatencyWindow> latencies = new EnumMap<>(LlmProvider.class);
+    private final Map<String, InFlightCall<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RestClient> restClients = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor executor;
+    private final long latencyBudgetMs;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeDefaultDelayMs;
+    private final long hedgeMinDelayMs;
+    private final long hedgeMaxDelayMs;
+
+    public LlmGateway(
+            @Value("${app.ai.gateway.cloud-max-concurrency:8}") int cloudMaxConcurrency,
+            @Value("${app.ai.gateway.ollama-max-concurrency:2}") int ollamaMaxConcurrency,
+            @Value("${app.ai.gateway.latency-budget-ms:20000}") long latencyBudgetMs,
+            @Value("${app.ai.gateway.hedge-enabled:true}") boolean hedgeEnabled,
+            @Value("${app.ai.gateway.hedge-percentile:95}") double hedgePercentile,
+            @Value("${app.ai.gateway.hedge-default-delay-ms:2000}") long hedgeDefaultDelayMs,
+            @Value("${app.ai.gateway.hedge-min-delay-ms:300}") long hedgeMinDelayMs,
+            @Value("${app.ai.gateway.hedge-max-delay-ms:8000}") long hedgeMaxDelayMs) {
+        int cloudPermits = Math.max(1, cloudMaxConcurrency);
+        int ollamaPermits = Math.max(1, ollamaMaxConcurrency);
+        permits.put(LlmProvider.CLOUD, new Semaphore(cloudPermits, true));
+        permits.put(LlmProvider.OLLAMA, new Semaphore(ollamaPermits, true));
+        for (LlmProvider provider : LlmProvider.values()) {
+            latencies.put(provider, new LatencyWindow(LATENCY_WINDOW_SIZE));
+        }
+        this.latencyBudgetMs = Math.max(500, latencyBudgetMs);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = Math.min(99.9, Math.max(50, hedgePercentile));
+        this.hedgeMinDelayMs = Math.max(0, hedgeMinDelayMs);
+        this.hedgeMaxDelayMs = Math.max(this.hedgeMinDelayMs, hedgeMaxDelayMs);
+        this.hedgeDefaultDelayMs = Math.min(this.hedgeMaxDelayMs, Math.max(this.hedgeMinDelayMs, hedgeDefaultDelayMs));
+
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        int threads = cloudPermits + ollamaPermits;
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(threads * 2);
+        taskExecutor.setThreadNamePrefix("llm-");
+        taskExecutor.initialize();
+        this.executor = taskExecutor;
+    }
+
+    public long newDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs);
+    }
+
+    public boolean hasBudget(long deadlineNanos) {
+        return deadlineNanos - System.nanoTime() > 0;
+    }
+
+    public boolean isHedgeEnabled() {
+        return hedgeEnabled;
+    }
+
+    public RestClient restClient(String baseUrl) {
+        return restClients.computeIfAbsent(baseUrl, url -> {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(Duration.ofMillis(latencyBudgetMs));
+            return RestClient.builder()
+                    .baseUrl(url)
+                    .requestFactory(requestFactory)
+                    .build();
+        });
+    }
+
+    public <T> T execute(LlmProvider provider, String dedupKey, long deadlineNanos, Supplier<T> call, T fallback) {
+        CompletableFuture<T> future = submit(provider, dedupKey, deadlineNanos, call, true);
+        try {
+            return await(provider, future, deadlineNanos, fallback);
+        } finally {
+            future.cancel(true);
+        }
+    }
+
+    public <T> T executeAsync(
+            LlmProvider provider,
+            String dedupKey,
+            long deadlineNanos,
+            Supplier<CompletableFuture<T>> asyncCall,
+            T fallback
+    ) {
+        CompletableFuture<T> future = join(provider, dedupKey, target -> {
+            CompletableFuture<T> pending = asyncCall.get();
+            target.task = pending;
+            pending.whenComplete((result, error) -> {
+                if (error == null) {
+                    target.result.complete(result);
+                } else {
+                    target.result.completeExceptionally(error);
+                }
+            });
+        });
+        try {
+            return await(provider, future, deadlineNanos, fallback);
+        } finally {
+            future.cancel(true);
+        }
+    }
+
+    public <T> CompletableFuture<T> submitUncoalesced(LlmProvider provider, long deadlineNanos, Supplier<T> call) {
+        InFlightCall<T> target = new InFlightCall<>();
+        start(provider, deadlineNanos, call, target, true);
+        return target.result;
+    }
+
+    public <T> T hedge(
+            LlmProvider primary,
+            Supplier<T> primaryCall,
+            LlmProvider secondary,
+            Supplier<T> secondaryCall,
+            String dedupKey,
+            long deadlineNanos,
+            Predicate<T> isValid,
+            T fallback
+    ) {
+        CompletableFuture<T> primaryFuture = submit(primary, dedupKey, deadlineNanos, primaryCall, true);
+        CompletableFuture<T> secondaryFuture = null;
+        try {
+            long hedgeDelayMs = hedgeDelayMs(primary);
+            long hedgeAt = Math.min(deadlineNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs));
+            try {
+                T early = primaryFuture.get(Math.max(0, hedgeAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (isValid.test(early)) {
+                    return early;
+                }
+            } catch (TimeoutException ignored) {
+            } catch (ExecutionException | CancellationException e) {
+                log.warn("LLM call failed. provider={}, error={}", primary, rootMessage(e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return fallback;
+            }
+
+            if (primaryFuture.isDone()) {
+                if (!hasBudget(deadlineNanos)) {
+                    return fallback;
+                }
+                return execute(secondary, dedupKey, deadlineNanos, secondaryCall, fallback);
+            }
+            if (!hasBudget(deadlineNanos)) {
+                log.warn("LLM latency budget exceeded, falling back to rule-based parsing. provider={}", primary);
+                return fallback;
+            }
+
+            secondaryFuture = submit(secondary, dedupKey, deadlineNanos, secondaryCall, false);
+            if (secondaryFuture.isCompletedExceptionally()) {
+                log.debug("Hedge skipped: no free capacity. secondary={}", secondary);
+                return await(primary, primaryFuture, deadlineNanos, fallback);
+            }
+            log.info("LLM hedge started. primary={}, secondary={}, hedgeDelayMs={}, primaryP50Ms={}, primaryP99Ms={}",
+                    primary, secondary, hedgeDelayMs, latencyPercentileMs(primary, 50), latencyPercentileMs(primary, 99));
+
+            CompletableFuture<T> winner = firstValid(primaryFuture, secondaryFuture, isValid, fallback);
+            return await(primary, winner, deadlineNanos, fallback);
+        } finally {
+            primaryFuture.cancel(true);
+            if (secondaryFuture != null) {
+                secondaryFuture.cancel(true);
+            }
+        }
+    }
+
+    public long hedgeDelayMs(LlmProvider provider) {
+        LatencyWindow window = latencies.get(provider);
+        if (window.size() < MIN_LATENCY_SAMPLES) {
+            return hedgeDefaultDelayMs;
+        }
+        long percentile = window.percentile(hedgePercentile);
+        return Math.min(hedgeMaxDelayMs, Math.max(hedgeMinDelayMs, percentile));
+    }
+
+    public long latencyPercentileMs(LlmProvider provider, double percentile) {
+        return latencies.get(provider).percentile(percentile);
+    }
+
+    private <T> CompletableFuture<T> firstValid(
+            CompletableFuture<T> first,
+            CompletableFuture<T> second,
+            Predicate<T> isValid,
+            T fallback
+    ) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (CompletableFuture<T> candidate : List.of(first, second)) {
+            candidate.whenComplete((result, error) -> {
+                if (error == null && isValid.test(result)) {
+                    winner.complete(result);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.complete(fallback);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private <T> CompletableFuture<T> submit(
+            LlmProvider provider,
+            String dedupKey,
+            long deadlineNanos,
+            Supplier<T> call,
+            boolean waitForPermit
+    ) {
+        return join(provider, dedupKey, target -> start(provider, deadlineNanos, call, target, waitForPermit));
+    }
+
+    private <T> CompletableFuture<T> join(LlmProvider provider, String dedupKey, Consumer<InFlightCall<T>> starter) {
+        String key = provider.name() + "|" + dedupKey;
+        InFlightCall<T> created = new InFlightCall<>();
+        @SuppressWarnings("unchecked")
+        InFlightCall<T> existing = (InFlightCall<T>) inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            log.debug("LLM call coalesced with in-flight request. provider={}", provider);
+            return existing.newView();
+        }
+
+        created.result.whenComplete((result, error) -> inFlight.remove(key, created));
+        CompletableFuture<T> view = created.newView();
+        starter.accept(created);
+        return view;
+    }
+
+    private <T> void start(
+            LlmProvider provider,
+            long deadlineNanos,
+            Supplier<T> call,
+            InFlightCall<T> target,
+            boolean waitForPermit
+    ) {
+        Semaphore semaphore = permits.get(provider);
+        long queuedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = waitForPermit
+                    ? semaphore.tryAcquire(Math.max(0, deadlineNanos - queuedAt), TimeUnit.NANOSECONDS)
+                    : semaphore.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            target.result.completeExceptionally(e);
+            return;
+        }
+        if (!acquired) {
+            target.result.completeExceptionally(new IllegalStateException(
+                    "LLM latency budget exceeded while queued. provider=" + provider
+                            + ", waitedMs=" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt)));
+            return;
+        }
+
+        long queueWaitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+        if (queueWaitMs > 0) {
+            log.debug("LLM permit acquired. provider={}, queueWaitMs={}, available={}",
+                    provider, queueWaitMs, semaphore.availablePermits());
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        target.result.whenComplete((result, error) -> {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            semaphore.release();
+            long startedAt = target.startedAt;
+            if (startedAt != 0) {
+                latencies.get(provider).add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            }
+        });
+        try {
+            target.task = executor.submit(() -> {
+                target.startedAt = System.nanoTime();
+                try {
+                    target.result.complete(call.get());
+                } catch (Throwable e) {
+                    target.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            target.result.completeExceptionally(e);
+        }
+    }
+
+    private <T> T await(LlmProvider provider, CompletableFuture<T> future, long deadlineNanos, T fallback) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("LLM latency budget exceeded, falling back to rule-based parsing. provider={}", provider);
+            return fallback;
+        } catch (ExecutionException | CancellationException e) {
+            log.warn("LLM call failed. provider={}, error={}", provider, rootMessage(e));
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+    }
+
+    private String rootMessage(Exception e) {
+        Throwable cause = e.getCause() == null ? e : e.getCause();
+        return cause.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class InFlightCall<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private volatile Future<?> task;
+        private volatile long startedAt;
+
+        private CompletableFuture<T> newView() {
+            waiters.incrementAndGet();
+            CompletableFuture<T> view = result.copy();
+            view.whenComplete((value, error) -> {
+                if (waiters.decrementAndGet() == 0 && view.isCancelled() && !result.isDone()) {
+                    Future<?> running = task;
+                    if (running != null) {
+                        running.cancel(true);
+                    }
+                    result.cancel(false);
+                }
+            });
+            return view;
+        }
+    }
+
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void add(long latencyMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long percentile(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.min(size - 1, Math.max(0, index))];
+        }
+    }
+}
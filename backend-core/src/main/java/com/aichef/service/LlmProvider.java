@@ -0,0 +1,6 @@
+package com.aichef.service;
+
+public enum LlmProvider {
+    CLOUD,
+    OLLAMA
+}
@@ -1,18 +1,16 @@
 package com.aichef.service;
 
 import com.aichef.config.AiProperties;
-import com.aichef.config.TelegramProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestClientException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -22,9 +20,10 @@ public class LocalVoskVoiceTranscriptionService implements VoiceTranscriptionSer
 
     private static final long VOSK_TIMEOUT_SEC = 90;
 
-    private final RestClient telegramRestClient;
-    private final TelegramProperties telegramProperties;
     private final AiProperties aiProperties;
+    private final TelegramFileFetcher telegramFileFetcher;
+    private final VoskWorkerPool voskWorkerPool;
+    private final ChunkedTranscriptionService chunkedTranscriptionService;
 
     @Override
     public VoiceTranscriptionResult transcribe(String fileId, String mimeType, Integer durationSec) {
@@ -32,13 +31,47 @@ public class LocalVoskVoiceTranscriptionService implements VoiceTranscriptionSer
             throw new IllegalStateException("APP_VOSK_MODEL_PATH is empty. Local Vosk is disabled.");
         }
 
-        String filePath = resolveTelegramFilePath(fileId);
-        byte[] voiceBytes = downloadTelegramFile(filePath);
-        String text = transcribeWithVosk(fileId, voiceBytes);
-        log.info("Voice transcribed by local Vosk. fileId={}, mimeType={}, textLength={}, text={}",
-                fileId, mimeType, text.length(), compactForLog(text));
-        String telegramFileUrl = telegramProperties.apiBase() + "/file/bot" + telegramProperties.botToken() + "/" + filePath;
-        return new VoiceTranscriptionResult(text, telegramFileUrl, mimeType, durationSec);
+        TelegramFileFetcher.TelegramFile file = telegramFileFetcher.resolve(fileId);
+        Transcript transcript;
+        if (!voskWorkerPool.isEnabled()) {
+            transcript = new Transcript(transcribeWithVosk(fileId, telegramFileFetcher.download(file)), List.of());
+        } else if (chunkedTranscriptionService.shouldChunk(durationSec, voskWorkerPool.size())) {
+            transcript = transcribeInChunks(fileId, telegramFileFetcher.download(file));
+        } else {
+            transcript = transcribeWithWorkerPool(fileId, file);
+        }
+        String text = transcript.text();
+        log.info("Voice transcribed by local Vosk. fileId={}, mimeType={}, textLength={}, confidence={}, text={}",
+                fileId, mimeType, text.length(), transcript.averageConfidence(), compactForLog(text));
+        return new VoiceTranscriptionResult(text, file.url(), mimeType, durationSec, "vosk", resolveModelName(),
+                transcript.averageConfidence());
+    }
+
+    private Transcript transcribeWithWorkerPool(String fileId, TelegramFileFetcher.TelegramFile file) {
+        Transcript transcript;
+        try {
+            transcript = telegramFileFetcher.stream(file, body -> voskWorkerPool.transcribeDetailed(body, "ogg"));
+        } catch (Exception e) {
+            throw new IllegalStateException("Local Vosk transcription failed for fileId=" + fileId + ": " + e.getMessage(), e);
+        }
+        if (transcript.text().isBlank()) {
+            throw new IllegalStateException("Vosk returned empty text.");
+        }
+        return transcript;
+    }
+
+    private Transcript transcribeInChunks(String fileId, byte[] audioBytes) {
+        Transcript transcript;
+        try {
+            transcript = chunkedTranscriptionService.transcribe(audioBytes, voskWorkerPool.size(),
+                    segment -> voskWorkerPool.transcribeDetailed(new ByteArrayInputStream(segment), "pcm"));
+        } catch (Exception e) {
+            throw new IllegalStateException("Local Vosk transcription failed for fileId=" + fileId + ": " + e.getMessage(), e);
+        }
+        if (transcript.text().isBlank()) {
+            throw new IllegalStateException("Vosk returned empty text.");
+        }
+        return transcript;
     }
 
     private String transcribeWithVosk(String fileId, byte[] audioBytes) {
@@ -101,6 +134,11 @@ public class LocalVoskVoiceTranscriptionService implements VoiceTranscriptionSer
         }
     }
 
+    private String resolveModelName() {
+        Path fileName = Path.of(aiProperties.voskModelPath().trim()).getFileName();
+        return fileName == null ? aiProperties.voskModelPath().trim() : fileName.toString();
+    }
+
     private String resolvePythonExecutable() {
         String configured = aiProperties.voskPython();
         if (configured == null || configured.isBlank()) {
@@ -120,42 +158,4 @@ public class LocalVoskVoiceTranscriptionService implements VoiceTranscriptionSer
         }
         return compact.substring(0, limit) + "...";
     }
-
-    private String resolveTelegramFilePath(String fileId) {
-        try {
-            Map<?, ?> response = telegramRestClient.get()
-                    .uri("/bot{token}/getFile?file_id={fileId}", telegramProperties.botToken(), fileId)
-                    .retrieve()
-                    .body(Map.class);
-            if (response == null || !Boolean.TRUE.equals(response.get("ok"))) {
-                throw new IllegalStateException("Telegram getFile failed: " + response);
-            }
-            Object resultObj = response.get("result");
-            if (!(resultObj instanceof Map<?, ?> resultMap)) {
-                throw new IllegalStateException("Telegram getFile has no result.");
-            }
-            Object filePath = resultMap.get("file_path");
-            if (!(filePath instanceof String fp) || fp.isBlank()) {
-                throw new IllegalStateException("Telegram file_path is empty.");
-            }
-            return fp;
-        } catch (RestClientException e) {
-            throw new IllegalStateException("Telegram getFile error: " + e.getMessage(), e);
-        }
-    }
-
-    private byte[] downloadTelegramFile(String filePath) {
-        try {
-            byte[] bytes = telegramRestClient.get()
-                    .uri("/file/bot{token}/{filePath}", telegramProperties.botToken(), filePath)
-                    .retrieve()
-                    .body(byte[].class);
-            if (bytes == null || bytes.length == 0) {
-                throw new IllegalStateException("Downloaded voice file is empty.");
-            }
-            return bytes;
-        } catch (RestClientException e) {
-            throw new IllegalStateException("Telegram file download error: " + e.getMessage(), e);
-        }
-    }
 }
@@ -1,12 +1,10 @@
 package com.aichef.service;
 
 import com.aichef.config.AiProperties;
-import com.aichef.config.TelegramProperties;
-import lombok.RequiredArgsConstructor;
+import com.aichef.util.TranscriptQuality;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestClientException;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -14,69 +12,218 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LocalWhisperVoiceTranscriptionService implements VoiceTranscriptionService {
 
     private static final long DOWNLOAD_ERROR_COOLDOWN_SEC = 30 * 60;
     private static final long WHISPER_TIMEOUT_SEC = 5 * 60;
-    private static final int MIN_REASONABLE_TEXT_LENGTH = 12;
-    private static final int MIN_LETTER_COUNT = 6;
+    private static final double MIN_SPAN_SEC = 1.0;
 
-    private final RestClient telegramRestClient;
-    private final TelegramProperties telegramProperties;
     private final AiProperties aiProperties;
+    private final TelegramFileFetcher telegramFileFetcher;
+    private final WhisperServerClient whisperServerClient;
+    private final boolean qualityGateEnabled;
+    private final double minWordConfidence;
+    private final double maxSpanFraction;
+    private final double spanPaddingSec;
     private volatile long blockedUntilEpochSec = 0;
 
+    public LocalWhisperVoiceTranscriptionService(
+            AiProperties aiProperties,
+            TelegramFileFetcher telegramFileFetcher,
+            WhisperServerClient whisperServerClient,
+            @Value("${app.ai.whisper-quality-gate.enabled:true}") boolean qualityGateEnabled,
+            @Value("${app.ai.whisper-quality-gate.min-word-confidence:0.5}") double minWordConfidence,
+            @Value("${app.ai.whisper-quality-gate.max-span-fraction:0.4}") double maxSpanFraction,
+            @Value("${app.ai.whisper-quality-gate.span-padding-sec:0.3}") double spanPaddingSec) {
+        this.aiProperties = aiProperties;
+        this.telegramFileFetcher = telegramFileFetcher;
+        this.whisperServerClient = whisperServerClient;
+        this.qualityGateEnabled = qualityGateEnabled;
+        this.minWordConfidence = minWordConfidence;
+        this.maxSpanFraction = maxSpanFraction;
+        this.spanPaddingSec = spanPaddingSec;
+    }
+
     @Override
     public VoiceTranscriptionResult transcribe(String fileId, String mimeType, Integer durationSec) {
-        if (!aiProperties.hasWhisperCommand()) {
-            throw new IllegalStateException("APP_WHISPER_COMMAND is empty. Local whisper is disabled.");
+        if (!isAvailable()) {
+            throw new IllegalStateException("APP_WHISPER_COMMAND and APP_WHISPER_SERVER_URL are empty. Local whisper is disabled.");
         }
 
-        String filePath = resolveTelegramFilePath(fileId);
-        byte[] voiceBytes = downloadTelegramFile(filePath);
+        TelegramFileFetcher.TelegramFile file = telegramFileFetcher.resolve(fileId);
         String primaryModel = resolvePrimaryModel();
         String fallbackModel = normalizeModelValue(aiProperties.whisperFallbackModel());
-        String transcribedText = transcribeWithWhisperTwoStage(voiceBytes, primaryModel, fallbackModel, fileId);
-        log.info("Voice transcribed by local Whisper. fileId={}, mimeType={}, textLength={}, text={}",
-                fileId, mimeType, transcribedText.length(), compactForLog(transcribedText));
-        String telegramFileUrl = telegramProperties.apiBase() + "/file/bot" + telegramProperties.botToken() + "/" + filePath;
+        WhisperPass pass = transcribeWithWhisperTwoStage(file, primaryModel, fallbackModel, fileId);
+        String transcribedText = pass.text();
+        log.info("Voice transcribed by local Whisper. fileId={}, mimeType={}, model={}, textLength={}, text={}",
+                fileId, mimeType, pass.model(), transcribedText.length(), compactForLog(transcribedText));
+        return new VoiceTranscriptionResult(transcribedText, file.url(), mimeType, durationSec, "whisper", pass.model(),
+                pass.confidence());
+    }
 
-        return new VoiceTranscriptionResult(transcribedText, telegramFileUrl, mimeType, durationSec);
+    public boolean isAvailable() {
+        return whisperServerClient.isEnabled() || aiProperties.hasWhisperCommand();
     }
 
-    private String transcribeWithWhisperTwoStage(byte[] audioBytes, String primaryModel, String fallbackModel, String fileId) {
-        String firstPass;
+    private WhisperPass transcribeWithWhisperTwoStage(TelegramFileFetcher.TelegramFile file, String primaryModel,
+                                                      String fallbackModel, String fileId) {
+        Transcript firstPass;
         try {
-            firstPass = transcribeWithWhisperCli(audioBytes, primaryModel);
+            firstPass = transcribeFirstPass(file, primaryModel);
         } catch (Exception firstError) {
             if (canUseFallbackModel(primaryModel, fallbackModel)) {
                 log.warn("Whisper fast pass failed on model={}, retrying with fallback model={}. fileId={}, error={}",
                         primaryModel, fallbackModel, fileId, firstError.getMessage());
-                return transcribeWithWhisperCli(audioBytes, fallbackModel);
+                return new WhisperPass(transcribeWithWhisper(telegramFileFetcher.download(file), fallbackModel), fallbackModel, null);
             }
             throw firstError;
         }
 
-        if (!shouldRetryWithFallback(firstPass) || !canUseFallbackModel(primaryModel, fallbackModel)) {
-            return firstPass;
+        if (!canUseFallbackModel(primaryModel, fallbackModel)) {
+            return new WhisperPass(firstPass.text(), primaryModel, firstPass.averageConfidence());
+        }
+        if (qualityGateEnabled && !firstPass.words().isEmpty()) {
+            WhisperPass refined = refineLowConfidenceSpans(file, firstPass, primaryModel, fallbackModel, fileId);
+            if (refined != null) {
+                return refined;
+            }
+        } else if (!TranscriptQuality.isLowQuality(firstPass.text())) {
+            return new WhisperPass(firstPass.text(), primaryModel, firstPass.averageConfidence());
         }
 
         log.info("Whisper fallback triggered due to low-quality first pass. fileId={}, primaryModel={}, fallbackModel={}, firstPassText={}",
-                fileId, primaryModel, fallbackModel, compactForLog(firstPass));
+                fileId, primaryModel, fallbackModel, compactForLog(firstPass.text()));
         try {
-            return transcribeWithWhisperCli(audioBytes, fallbackModel);
+            return new WhisperPass(transcribeWithWhisper(telegramFileFetcher.download(file), fallbackModel), fallbackModel, null);
         } catch (Exception fallbackError) {
             log.warn("Whisper fallback failed, using first pass result. fileId={}, fallbackModel={}, error={}",
                     fileId, fallbackModel, fallbackError.getMessage());
-            return firstPass;
+            return new WhisperPass(firstPass.text(), primaryModel, firstPass.averageConfidence());
+        }
+    }
+
+    private WhisperPass refineLowConfidenceSpans(TelegramFileFetcher.TelegramFile file, Transcript firstPass,
+                                                 String primaryModel, String fallbackModel, String fileId) {
+        List<TranscriptWord> words = firstPass.words();
+        List<WordSpan> spans = findLowConfidenceSpans(words);
+        if (spans.isEmpty()) {
+            return new WhisperPass(firstPass.text(), primaryModel, firstPass.averageConfidence());
+        }
+
+        double audioSec = Math.max(words.get(words.size() - 1).end(), 0.001);
+        double spanSec = spans.stream().mapToDouble(span -> span.endSec() - span.startSec()).sum();
+        if (spanSec / audioSec > maxSpanFraction) {
+            log.info("Whisper quality gate: low-confidence spans cover {}% of audio, running full second pass. fileId={}",
+                    Math.round(100 * spanSec / audioSec), fileId);
+            return null;
+        }
+
+        byte[] audio = telegramFileFetcher.download(file);
+        List<String> parts = new ArrayList<>();
+        int next = 0;
+        int replaced = 0;
+        for (WordSpan span : spans) {
+            for (int i = next; i < span.from(); i++) {
+                parts.add(words.get(i).word().trim());
+            }
+            String redecoded = "";
+            try {
+                redecoded = whisperServerClient.transcribeSpan(audio, "ogg", fallbackModel, span.startSec(), span.endSec()).trim();
+            } catch (Exception e) {
+                log.warn("Whisper span re-decode failed, keeping first pass words. fileId={}, span={}-{}s, error={}",
+                        fileId, span.startSec(), span.endSec(), e.getMessage());
+            }
+            if (redecoded.isBlank()) {
+                for (int i = span.from(); i <= span.to(); i++) {
+                    parts.add(words.get(i).word().trim());
+                }
+            } else {
+                parts.add(redecoded);
+                replaced++;
+            }
+            next = span.to() + 1;
+        }
+        for (int i = next; i < words.size(); i++) {
+            parts.add(words.get(i).word().trim());
         }
+
+        String text = String.join(" ", parts).replaceAll("\\s+", " ").trim();
+        log.info("Whisper quality gate re-decoded {} of {} low-confidence spans ({}s of {}s). fileId={}, fallbackModel={}",
+                replaced, spans.size(), String.format(Locale.ROOT, "%.1f", spanSec),
+                String.format(Locale.ROOT, "%.1f", audioSec), fileId, fallbackModel);
+        return new WhisperPass(text, replaced > 0 ? primaryModel + "+" + fallbackModel : primaryModel,
+                firstPass.averageConfidence());
+    }
+
+    private List<WordSpan> findLowConfidenceSpans(List<TranscriptWord> words) {
+        List<WordSpan> spans = new ArrayList<>();
+        int i = 0;
+        while (i < words.size()) {
+            if (words.get(i).confidence() >= minWordConfidence) {
+                i++;
+                continue;
+            }
+            int from = i;
+            int to = i;
+            while (to + 1 < words.size() && words.get(to + 1).confidence() < minWordConfidence) {
+                to++;
+            }
+            while (words.get(to).end() - words.get(from).start() < MIN_SPAN_SEC && (from > 0 || to + 1 < words.size())) {
+                if (from > 0 && (to + 1 >= words.size()
+                        || words.get(from - 1).confidence() <= words.get(to + 1).confidence())) {
+                    from--;
+                } else {
+                    to++;
+                }
+            }
+            if (!spans.isEmpty() && from <= spans.get(spans.size() - 1).to() + 1) {
+                from = spans.remove(spans.size() - 1).from();
+            }
+            double startSec = Math.max(from > 0 ? words.get(from - 1).end() : 0, words.get(from).start() - spanPaddingSec);
+            double endSec = to + 1 < words.size()
+                    ? Math.min(words.get(to + 1).start(), words.get(to).end() + spanPaddingSec)
+                    : words.get(to).end() + spanPaddingSec;
+            spans.add(new WordSpan(from, to, startSec, endSec));
+            i = to + 1;
+        }
+        return spans;
+    }
+
+    private Transcript transcribeFirstPass(TelegramFileFetcher.TelegramFile file, String model) {
+        if (whisperServerClient.isEnabled()) {
+            try {
+                return telegramFileFetcher.stream(file, body -> qualityGateEnabled
+                        ? whisperServerClient.transcribeDetailed(body, "ogg", model)
+                        : new Transcript(whisperServerClient.transcribe(body, "ogg", model), List.of()));
+            } catch (Exception e) {
+                if (!aiProperties.hasWhisperCommand()) {
+                    throw new IllegalStateException("Whisper server transcription failed for model '" + model + "': " + e.getMessage(), e);
+                }
+                log.warn("Whisper server failed, falling back to CLI. model={}, error={}", model, e.getMessage());
+            }
+        }
+        return new Transcript(transcribeWithWhisperCli(telegramFileFetcher.download(file), model), List.of());
+    }
+
+    private String transcribeWithWhisper(byte[] audioBytes, String model) {
+        if (whisperServerClient.isEnabled()) {
+            try {
+                return whisperServerClient.transcribe(audioBytes, "ogg", model);
+            } catch (Exception e) {
+                if (!aiProperties.hasWhisperCommand()) {
+                    throw new IllegalStateException("Whisper server transcription failed for model '" + model + "': " + e.getMessage(), e);
+                }
+                log.warn("Whisper server failed, falling back to CLI. model={}, error={}", model, e.getMessage());
+            }
+        }
+        return transcribeWithWhisperCli(audioBytes, model);
     }
 
     private String transcribeWithWhisperCli(byte[] audioBytes, String model) {
@@ -183,28 +330,6 @@ public class LocalWhisperVoiceTranscriptionService implements VoiceTranscription
         return fallbackModel != null && !fallbackModel.equals(primaryModel);
     }
 
-    private boolean shouldRetryWithFallback(String text) {
-        if (text == null) {
-            return true;
-        }
-        String compact = text.replaceAll("\\s+", " ").trim();
-        if (compact.isBlank()) {
-            return true;
-        }
-        if (compact.length() < MIN_REASONABLE_TEXT_LENGTH) {
-            return true;
-        }
-
-        long letters = compact.chars().filter(Character::isLetter).count();
-        if (letters < MIN_LETTER_COUNT) {
-            return true;
-        }
-
-        long spaces = compact.chars().filter(ch -> ch == ' ').count();
-        long words = spaces + 1;
-        return words <= 2 && compact.length() <= 16;
-    }
-
     private CommandResult runWhisper(String cmd, Path workDir, String model, Path modelCachePath) throws IOException, InterruptedException {
         Process process = new ProcessBuilder("/bin/sh", "-lc", cmd)
                 .directory(workDir.toFile())
@@ -215,9 +340,14 @@ public class LocalWhisperVoiceTranscriptionService implements VoiceTranscription
         long lastLoggedSize = -1;
         boolean finished = false;
         while (System.currentTimeMillis() < deadline) {
-            if (process.waitFor(2, TimeUnit.SECONDS)) {
-                finished = true;
-                break;
+            try {
+                if (process.waitFor(2, TimeUnit.SECONDS)) {
+                    finished = true;
+                    break;
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                throw e;
             }
             if (modelCachePath != null) {
                 long size = modelFileSize(modelCachePath);
@@ -334,44 +464,12 @@ public class LocalWhisperVoiceTranscriptionService implements VoiceTranscription
         return compact.substring(0, limit) + "...";
     }
 
-    private String resolveTelegramFilePath(String fileId) {
-        try {
-            Map<?, ?> response = telegramRestClient.get()
-                    .uri("/bot{token}/getFile?file_id={fileId}", telegramProperties.botToken(), fileId)
-                    .retrieve()
-                    .body(Map.class);
-            if (response == null || !Boolean.TRUE.equals(response.get("ok"))) {
-                throw new IllegalStateException("Telegram getFile failed: " + response);
-            }
-            Object resultObj = response.get("result");
-            if (!(resultObj instanceof Map<?, ?> resultMap)) {
-                throw new IllegalStateException("Telegram getFile has no result.");
-            }
-            Object filePath = resultMap.get("file_path");
-            if (!(filePath instanceof String fp) || fp.isBlank()) {
-                throw new IllegalStateException("Telegram file_path is empty.");
-            }
-            return fp;
-        } catch (RestClientException e) {
-            throw new IllegalStateException("Telegram getFile error: " + e.getMessage(), e);
-        }
+    private record CommandResult(int exitCode, String stdout, String stderr) {
     }
 
-    private byte[] downloadTelegramFile(String filePath) {
-        try {
-            byte[] bytes = telegramRestClient.get()
-                    .uri("/file/bot{token}/{filePath}", telegramProperties.botToken(), filePath)
-                    .retrieve()
-                    .body(byte[].class);
-            if (bytes == null || bytes.length == 0) {
-                throw new IllegalStateException("Downloaded voice file is empty.");
-            }
-            return bytes;
-        } catch (RestClientException e) {
-            throw new IllegalStateException("Telegram file download error: " + e.getMessage(), e);
-        }
+    private record WhisperPass(String text, String model, Double confidence) {
     }
 
-    private record CommandResult(int exitCode, String stdout, String stderr) {
+    private record WordSpan(int from, int to, double startSec, double endSec) {
     }
 }
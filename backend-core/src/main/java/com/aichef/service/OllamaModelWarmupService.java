@@ -0,0 +1,178 @@
+package com.aichef.service;
+
+import com.aichef.config.AiProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class OllamaModelWarmupService implements ApplicationRunner {
+
+    public enum State {
+        DISABLED,
+        WARMING,
+        READY,
+        FAILED
+    }
+
+    private final AiProperties aiProperties;
+    private final boolean enabled;
+    private final String keepAlive;
+    private final long loadTimeoutMs;
+    private final int failureThreshold;
+    private final long retryDelayMs;
+    private final AtomicBoolean inProgress = new AtomicBoolean();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile State state = State.WARMING;
+    private volatile Instant lastSuccessAt;
+    private volatile Long lastLoadMs;
+    private volatile String lastError;
+
+    public OllamaModelWarmupService(
+            AiProperties aiProperties,
+            @Value("${app.ai.ollama-warmup.enabled:true}") boolean enabled,
+            @Value("${app.ai.ollama-keep-alive:30m}") String keepAlive,
+            @Value("${app.ai.ollama-warmup.load-timeout-ms:180000}") long loadTimeoutMs,
+            @Value("${app.ai.ollama-warmup.failure-threshold:3}") int failureThreshold,
+            @Value("${app.ai.ollama-warmup.retry-delay-ms:10000}") long retryDelayMs) {
+        this.aiProperties = aiProperties;
+        this.enabled = enabled;
+        this.keepAlive = keepAlive;
+        this.loadTimeoutMs = Math.max(1000, loadTimeoutMs);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.retryDelayMs = Math.max(0, retryDelayMs);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !aiProperties.hasOllama()) {
+            state = State.DISABLED;
+            log.info("Ollama warm-up disabled. enabled={}, hasOllama={}", enabled, aiProperties.hasOllama());
+            return;
+        }
+        Thread.ofVirtual().name("ollama-warmup").start(this::warmUp);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.ai.ollama-warmup.ping-interval-ms:240000}",
+            initialDelayString = "${app.ai.ollama-warmup.ping-interval-ms:240000}"
+    )
+    public void keepResident() {
+        if (state == State.DISABLED) {
+            return;
+        }
+        warmUp();
+    }
+
+    public void warmUp() {
+        if (!inProgress.compareAndSet(false, true)) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            Map<String, Object> payload = Map.of(
+                    "model", aiProperties.ollamaModel(),
+                    "prompt", "",
+                    "stream", false,
+                    "keep_alive", keepAlive
+            );
+            Map<?, ?> response = restClient().post()
+                    .uri("/api/generate")
+                    .body(payload)
+                    .retrieve()
+                    .body(Map.class);
+
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            long loadMs = response != null && response.get("load_duration") instanceof Number loadNanos
+                    ? TimeUnit.NANOSECONDS.toMillis(loadNanos.longValue())
+                    : elapsedMs;
+            if (state != State.READY || loadMs > 1000) {
+                log.info("Ollama model is resident. model={}, keepAlive={}, loadMs={}, elapsedMs={}",
+                        aiProperties.ollamaModel(), keepAlive, loadMs, elapsedMs);
+            }
+            lastLoadMs = loadMs;
+            lastSuccessAt = Instant.now();
+            lastError = null;
+            consecutiveFailures.set(0);
+            state = State.READY;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            int failures = consecutiveFailures.incrementAndGet();
+            if (failures >= failureThreshold) {
+                state = State.FAILED;
+            } else {
+                scheduleRetry();
+            }
+            log.warn("Ollama warm-up failed. model={}, failures={}, threshold={}, error={}",
+                    aiProperties.ollamaModel(), failures, failureThreshold, e.getMessage());
+        } finally {
+            inProgress.set(false);
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public String model() {
+        return aiProperties.ollamaModel();
+    }
+
+    public String keepAlive() {
+        return keepAlive;
+    }
+
+    public Instant lastSuccessAt() {
+        return lastSuccessAt;
+    }
+
+    public Long lastLoadMs() {
+        return lastLoadMs;
+    }
+
+    public String lastError() {
+        return lastError;
+    }
+
+    public int consecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    private void scheduleRetry() {
+        Thread.ofVirtual().name("ollama-warmup-retry").start(() -> {
+            try {
+                Thread.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            warmUp();
+        });
+    }
+
+    private RestClient restClient() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(loadTimeoutMs));
+        return RestClient.builder()
+                .baseUrl(aiProperties.ollamaBaseUrl())
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
@@ -1,28 +1,58 @@
 package com.aichef.service;
 
 import com.aichef.config.AiProperties;
+import com.aichef.util.IncrementalJsonObjectParser;
+import com.aichef.util.MicroBatcher;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OllamaStructuredParsingService {
 
     private final AiProperties aiProperties;
     private final ObjectMapper objectMapper;
+    private final LlmGateway llmGateway;
+    private final MicroBatcher<BatchItem, ParsedEventData> ollamaBatcher;
+    private final String ollamaKeepAlive;
+
+    public OllamaStructuredParsingService(
+            AiProperties aiProperties,
+            ObjectMapper objectMapper,
+            LlmGateway llmGateway,
+            @Value("${app.ai.ollama-keep-alive:30m}") String ollamaKeepAlive,
+            @Value("${app.ai.ollama-batch.enabled:false}") boolean batchEnabled,
+            @Value("${app.ai.ollama-batch.max-size:8}") int batchMaxSize,
+            @Value("${app.ai.ollama-batch.max-wait-ms:20}") long batchMaxWaitMs) {
+        this.aiProperties = aiProperties;
+        this.objectMapper = objectMapper;
+        this.llmGateway = llmGateway;
+        this.ollamaKeepAlive = ollamaKeepAlive;
+        this.ollamaBatcher = batchEnabled
+                ? new MicroBatcher<>("llm-batcher", batchMaxSize, batchMaxWaitMs, this::dispatchOllamaBatch)
+                : null;
+    }
 
     public boolean isEnabled() {
         return aiProperties.hasCloudLlm() || aiProperties.hasOllama();
@@ -37,19 +67,50 @@ public class OllamaStructuredParsingService {
         }
 
         try {
-            String today = LocalDate.now(zoneId == null ? ZoneId.of("Europe/Moscow") : zoneId).toString();
+            ZoneId zone = zoneId == null ? ZoneId.of("Europe/Moscow") : zoneId;
+            String today = LocalDate.now(zone).toString();
             String prompt = buildPrompt(today, text);
+            String dedupKey = zone.getId() + "|" + prompt;
+            long deadline = llmGateway.newDeadline();
+
+            if (aiProperties.hasCloudLlm() && aiProperties.hasOllama() && llmGateway.isHedgeEnabled()
+                    && ollamaBatcher == null) {
+                return llmGateway.hedge(
+                        LlmProvider.CLOUD,
+                        () -> extractViaCloudLlm(prompt),
+                        LlmProvider.OLLAMA,
+                        () -> extractViaOllama(prompt),
+                        dedupKey,
+                        deadline,
+                        parsed -> parsed != null && parsed.hasAnyData(),
+                        ParsedEventData.empty()
+                );
+            }
 
             if (aiProperties.hasCloudLlm()) {
-                ParsedEventData cloudParsed = extractViaCloudLlm(prompt);
+                ParsedEventData cloudParsed = llmGateway.execute(
+                        LlmProvider.CLOUD, dedupKey, deadline, () -> extractViaCloudLlm(prompt), ParsedEventData.empty());
                 if (cloudParsed.hasAnyData()) {
                     return cloudParsed;
                 }
+                if (!llmGateway.hasBudget(deadline)) {
+                    log.warn("LLM latency budget exhausted after cloud attempt, using rule-based parsing.");
+                    return ParsedEventData.empty();
+                }
                 log.warn("Cloud LLM returned no structured data, trying Ollama fallback.");
             }
 
+            if (aiProperties.hasOllama() && ollamaBatcher != null) {
+                return llmGateway.executeAsync(
+                        LlmProvider.OLLAMA,
+                        dedupKey,
+                        deadline,
+                        () -> ollamaBatcher.submit(new BatchItem(today, text, prompt)),
+                        ParsedEventData.empty());
+            }
             if (aiProperties.hasOllama()) {
-                return extractViaOllama(prompt);
+                return llmGateway.execute(
+                        LlmProvider.OLLAMA, dedupKey, deadline, () -> extractViaOllama(prompt), ParsedEventData.empty());
             }
             return ParsedEventData.empty();
         } catch (Exception e) {
@@ -58,6 +119,13 @@ public class OllamaStructuredParsingService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (ollamaBatcher != null) {
+            ollamaBatcher.close();
+        }
+    }
+
     private String buildPrompt(String today, String text) {
         return """
                     Извлеки структуру календарного запроса.
@@ -79,8 +147,94 @@ public class OllamaStructuredParsingService {
                     """.formatted(today, text);
     }
 
+    private String buildBatchPrompt(List<BatchItem> items) {
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            requests.append("id=").append(i)
+                    .append(" (today=").append(item.today()).append("): ")
+                    .append(item.text().replace('\n', ' '))
+                    .append('\n');
+        }
+        return """
+                    Извлеки структуру каждого календарного запроса из списка.
+                    Каждая строка списка это отдельный независимый запрос со своим id и today.
+                    Верни строго JSON, без markdown и комментариев.
+                    Схема:
+                    {
+                      "items":[
+                        {
+                          "id": integer,
+                          "intent":"create_meeting|create_task|other",
+                          "title":"string|null",
+                          "date":"YYYY-MM-DD|null",
+                          "time":"HH:mm|null",
+                          "duration_minutes": integer|null
+                        }
+                      ]
+                    }
+                    Правила:
+                    - Для каждого id ровно один элемент в items.
+                    - "двенадцать часов дня" => "12:00"
+                    - title это только название события без даты, времени, длительности и без командных слов ("создай событие", "добавь встречу").
+                    - Если нет данных, ставь null.
+                    Запросы:
+                    %s""".formatted(requests);
+    }
+
+    private CompletableFuture<List<ParsedEventData>> dispatchOllamaBatch(List<BatchItem> items) {
+        long deadline = llmGateway.newDeadline();
+        if (items.size() == 1) {
+            String prompt = items.get(0).prompt();
+            return llmGateway.submitUncoalesced(LlmProvider.OLLAMA, deadline, () -> List.of(extractViaOllama(prompt)));
+        }
+        log.debug("Ollama micro-batch dispatched. size={}", items.size());
+        return llmGateway.submitUncoalesced(LlmProvider.OLLAMA, deadline, () -> extractBatchViaOllama(items));
+    }
+
+    private List<ParsedEventData> extractBatchViaOllama(List<BatchItem> items) {
+        RestClient client = llmGateway.restClient(aiProperties.ollamaBaseUrl());
+        Map<String, Object> payload = Map.of(
+                "model", aiProperties.ollamaModel(),
+                "stream", false,
+                "format", "json",
+                "keep_alive", ollamaKeepAlive,
+                "prompt", buildBatchPrompt(items),
+                "options", Map.of("temperature", 0)
+        );
+
+        Map<?, ?> response = client.post()
+                .uri("/api/generate")
+                .body(payload)
+                .retrieve()
+                .body(Map.class);
+
+        Map<Integer, ParsedEventData> byId = new HashMap<>();
+        if (response != null && response.get("response") instanceof String raw && !raw.isBlank()) {
+            try {
+                JsonNode root = objectMapper.readTree(extractJsonObject(raw));
+                for (JsonNode node : root.path("items")) {
+                    if (node.hasNonNull("id")) {
+                        byId.putIfAbsent(node.get("id").asInt(-1), toParsedEventData(node));
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Failed to parse Ollama batch JSON: {}", e.getMessage());
+            }
+        }
+
+        List<ParsedEventData> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(byId.getOrDefault(i, ParsedEventData.empty()));
+        }
+        if (byId.size() < items.size()) {
+            log.warn("Ollama batch returned {} of {} items.", byId.size(), items.size());
+        }
+        return results;
+    }
+
     private ParsedEventData extractViaCloudLlm(String prompt) {
-        RestClient client = RestClient.builder().baseUrl(aiProperties.llmBaseUrl().trim()).build();
+        RestClient client = llmGateway.restClient(aiProperties.llmBaseUrl().trim());
         Map<String, Object> payload = Map.of(
                 "model", aiProperties.llmModel().trim(),
                 "temperature", 0,
@@ -117,24 +271,60 @@ public class OllamaStructuredParsingService {
     }
 
     private ParsedEventData extractViaOllama(String prompt) {
-        RestClient client = RestClient.builder().baseUrl(aiProperties.ollamaBaseUrl()).build();
+        RestClient client = llmGateway.restClient(aiProperties.ollamaBaseUrl());
         Map<String, Object> payload = Map.of(
                 "model", aiProperties.ollamaModel(),
-                "stream", false,
+                "stream", true,
                 "format", "json",
+                "keep_alive", ollamaKeepAlive,
                 "prompt", prompt,
                 "options", Map.of("temperature", 0)
         );
 
-        Map<?, ?> response = client.post()
+        return client.post()
                 .uri("/api/generate")
                 .body(payload)
-                .retrieve()
-                .body(Map.class);
-        if (response == null || !(response.get("response") instanceof String raw) || raw.isBlank()) {
-            return ParsedEventData.empty();
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new IllegalStateException("Ollama generate failed. status=" + response.getStatusCode());
+                    }
+                    return readOllamaStream(response.getBody());
+                });
+    }
+
+    private ParsedEventData readOllamaStream(InputStream body) throws IOException {
+        IncrementalJsonObjectParser parser = new IncrementalJsonObjectParser(objectMapper);
+        int chunks = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Ollama stream cancelled.");
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode chunk = objectMapper.readTree(line);
+                if (chunk.hasNonNull("error")) {
+                    throw new IllegalStateException("Ollama generate error: " + chunk.get("error").asText());
+                }
+                parser.feed(chunk.path("response").asText(""));
+                chunks++;
+                if ("other".equalsIgnoreCase(parser.textField("intent"))) {
+                    log.debug("Ollama stream stopped early: intent=other after {} chunks.", chunks);
+                    return new ParsedEventData("other", null, null, null, null);
+                }
+                if (parser.isComplete() || chunk.path("done").asBoolean(false)) {
+                    break;
+                }
+            }
         }
-        return parseStructuredJson(raw);
+
+        if (parser.isComplete() && !parser.isBroken()) {
+            return toParsedEventData(parser.fields());
+        }
+        String raw = parser.raw();
+        return raw.isBlank() ? ParsedEventData.empty() : parseStructuredJson(raw);
     }
 
     private ParsedEventData parseStructuredJson(String raw) {
@@ -143,19 +333,22 @@ public class OllamaStructuredParsingService {
             return ParsedEventData.empty();
         }
         try {
-            JsonNode root = objectMapper.readTree(json);
-            String intent = textOrNull(root.get("intent"));
-            String title = textOrNull(root.get("title"));
-            LocalDate date = parseDate(textOrNull(root.get("date")));
-            LocalTime time = parseTime(textOrNull(root.get("time")));
-            Integer duration = parseInteger(root.get("duration_minutes"));
-            return new ParsedEventData(intent, title, date, time, duration);
+            return toParsedEventData(objectMapper.readTree(json));
         } catch (Exception e) {
             log.warn("Failed to parse structured JSON: {}", e.getMessage());
             return ParsedEventData.empty();
         }
     }
 
+    private ParsedEventData toParsedEventData(JsonNode root) {
+        String intent = textOrNull(root.get("intent"));
+        String title = textOrNull(root.get("title"));
+        LocalDate date = parseDate(textOrNull(root.get("date")));
+        LocalTime time = parseTime(textOrNull(root.get("time")));
+        Integer duration = parseInteger(root.get("duration_minutes"));
+        return new ParsedEventData(intent, title, date, time, duration);
+    }
+
     private String extractJsonObject(String raw) {
         if (raw == null) {
             return null;
@@ -221,6 +414,9 @@ public class OllamaStructuredParsingService {
         }
     }
 
+    private record BatchItem(String today, String text, String prompt) {
+    }
+
     public record ParsedEventData(
             String intent,
             String title,
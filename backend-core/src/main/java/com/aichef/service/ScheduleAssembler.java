@@ -0,0 +1,146 @@
+package com.aichef.service;
+
+import com.aichef.domain.model.Meeting;
+import com.aichef.domain.model.TaskItem;
+import com.aichef.domain.model.User;
+import com.aichef.repository.MeetingRepository;
+import com.aichef.repository.TaskItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+public class ScheduleAssembler {
+
+    private final MeetingRepository meetingRepository;
+    private final TaskItemRepository taskItemRepository;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
+    private final long databaseTimeoutMs;
+    private final long googleTimeoutMs;
+    private final ThreadPoolTaskExecutor fanoutExecutor;
+    private final ThreadPoolTaskExecutor googleExecutor;
+
+    public ScheduleAssembler(
+            MeetingRepository meetingRepository,
+            TaskItemRepository taskItemRepository,
+            GoogleCalendarMirrorService googleCalendarMirrorService,
+            @Value("${app.schedule.database-timeout-ms:5000}") long databaseTimeoutMs,
+            @Value("${app.schedule.google-timeout-ms:1500}") long googleTimeoutMs,
+            @Value("${app.schedule.fanout-threads:8}") int fanoutThreads,
+            @Value("${app.schedule.google-threads:4}") int googleThreads,
+            @Value("${app.schedule.google-queue-capacity:50}") int googleQueueCapacity) {
+        this.meetingRepository = meetingRepository;
+        this.taskItemRepository = taskItemRepository;
+        this.googleCalendarMirrorService = googleCalendarMirrorService;
+        this.databaseTimeoutMs = Math.max(100, databaseTimeoutMs);
+        this.googleTimeoutMs = Math.max(0, googleTimeoutMs);
+
+        int threads = Math.max(2, fanoutThreads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("schedule-fanout-");
+        executor.initialize();
+        this.fanoutExecutor = executor;
+
+        int googlePoolSize = Math.max(1, googleThreads);
+        ThreadPoolTaskExecutor google = new ThreadPoolTaskExecutor();
+        google.setCorePoolSize(googlePoolSize);
+        google.setMaxPoolSize(googlePoolSize);
+        google.setQueueCapacity(Math.max(0, googleQueueCapacity));
+        google.setThreadNamePrefix("schedule-google-");
+        google.initialize();
+        this.googleExecutor = google;
+    }
+
+    public Schedule assemble(User user, LocalDate from, LocalDate to, ZoneId zoneId) {
+        long startedAt = System.nanoTime();
+        Future<List<CalendarEventView>> googleFuture;
+        try {
+            googleFuture = googleExecutor.submit(() -> googleCalendarMirrorService.listEvents(user, from, to, zoneId));
+        } catch (TaskRejectedException e) {
+            googleFuture = null;
+        }
+        CompletableFuture<List<Meeting>> meetingsFuture = CompletableFuture.supplyAsync(
+                () -> meetingRepository.findByCalendarDay_UserAndCalendarDay_DayDateBetweenOrderByStartsAtAsc(user, from, to), fanoutExecutor);
+        CompletableFuture<List<TaskItem>> tasksFuture = CompletableFuture.supplyAsync(
+                () -> taskItemRepository.findByCalendarDay_UserAndCalendarDay_DayDateBetweenOrderByDueAtAsc(user, from, to), fanoutExecutor);
+
+        List<Meeting> meetings = awaitRequired(meetingsFuture, "meetings", startedAt);
+        List<TaskItem> tasks = awaitRequired(tasksFuture, "tasks", startedAt);
+
+        List<CalendarEventView> events = new ArrayList<>();
+        for (Meeting meeting : meetings) {
+            events.add(new CalendarEventView(meeting.getTitle(), meeting.getStartsAt(), meeting.getEndsAt(), "internal", meeting.getExternalLink()));
+        }
+
+        boolean googlePending = false;
+        try {
+            if (googleFuture == null) {
+                googlePending = true;
+                googleCalendarMirrorService.requestSync(user.getId());
+                log.info("Google events skipped, schedule Google pool is saturated. userId={}", user.getId());
+            } else {
+                events.addAll(googleFuture.get(remainingMs(startedAt, googleTimeoutMs), TimeUnit.MILLISECONDS));
+            }
+        } catch (TimeoutException e) {
+            googleFuture.cancel(true);
+            googlePending = true;
+            googleCalendarMirrorService.requestSync(user.getId());
+            log.info("Google events missed schedule deadline. userId={}, deadlineMs={}", user.getId(), googleTimeoutMs);
+        } catch (InterruptedException e) {
+            googleFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            googlePending = true;
+        } catch (ExecutionException e) {
+            log.warn("Google events unavailable for schedule. userId={}, error={}", user.getId(),
+                    e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+        }
+        events.sort(Comparator.comparing(CalendarEventView::startsAt));
+        return new Schedule(events, tasks, googlePending);
+    }
+
+    private <T> T awaitRequired(CompletableFuture<T> future, String source, long startedAt) {
+        try {
+            return future.get(remainingMs(startedAt, databaseTimeoutMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Schedule " + source + " query timeout after " + databaseTimeoutMs + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading schedule " + source, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    private long remainingMs(long startedAt, long deadlineMs) {
+        return Math.max(0, deadlineMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdown();
+        googleExecutor.shutdown();
+    }
+
+    public record Schedule(List<CalendarEventView> events, List<TaskItem> tasks, boolean googlePending) {
+    }
+}
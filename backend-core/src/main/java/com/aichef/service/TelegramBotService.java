@@ -1,6 +1,7 @@
 package com.aichef.service;
 
 import com.aichef.config.TelegramProperties;
+import com.aichef.domain.enums.CalendarOutboxOperation;
 import com.aichef.domain.enums.FilterClassification;
 import com.aichef.domain.enums.InboundStatus;
 import com.aichef.domain.enums.MeetingStatus;
@@ -44,7 +45,6 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.ArrayDeque;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -109,12 +109,19 @@ public class TelegramBotService {
     private final OllamaStructuredParsingService ollamaStructuredParsingService;
     private final VoiceTranscriptionService voiceTranscriptionService;
     private final GoogleCalendarService googleCalendarService;
+    private final CalendarOutboxService calendarOutboxService;
+    private final ScheduleAssembler scheduleAssembler;
     private final GoogleOAuthService googleOAuthService;
     @Value("${app.miniapp.public-url:}")
     private String miniAppPublicUrl;
 
     @Transactional
     public void handleUpdate(TelegramWebhookUpdate update) {
+        handleUpdate(update, null);
+    }
+
+    @Transactional
+    public void handleUpdate(TelegramWebhookUpdate update, VoiceTranscriptionResult transcribedVoice) {
         if (update == null || update.message() == null || update.message().chat() == null) {
             log.warn("Skip Telegram update: update/message/chat is null");
             return;
@@ -151,19 +158,25 @@ public class TelegramBotService {
             sourceType = SourceType.VOICE;
             try {
                 TelegramWebhookUpdate.Voice voice = update.message().voice();
-                VoiceTranscriptionResult transcriptionResult = voiceTranscriptionService.transcribe(
-                        voice.file_id(), voice.mime_type(), voice.duration());
+                VoiceTranscriptionResult transcriptionResult = transcribedVoice != null
+                        ? transcribedVoice
+                        : voiceTranscriptionService.transcribe(
+                                voice.file_id(), voice.file_unique_id(), voice.mime_type(), voice.duration());
                 String transcriptionRaw = transcriptionResult.text();
                 rawText = sanitizeRecognizedText(transcriptionRaw);
                 fileUrl = transcriptionResult.telegramFileUrl();
                 metadata.put("voice_duration_sec", transcriptionResult.durationSec());
                 metadata.put("voice_mime_type", transcriptionResult.mimeType());
                 metadata.put("voice_file_id", voice.file_id());
+                metadata.put("voice_file_unique_id", voice.file_unique_id());
+                metadata.put("transcription_engine", transcriptionResult.engine());
+                metadata.put("transcription_model", transcriptionResult.model());
+                metadata.put("transcription_confidence", transcriptionResult.confidence());
                 metadata.put("transcription_raw", transcriptionRaw);
                 metadata.put("transcription", rawText);
             } catch (Exception e) {
                 log.error("Voice transcription failed. chatId={}, error={}", chatId, e.getMessage(), e);
-                sendMessage(chatId, buildVoiceFailureMessage(e), true);
+                reportVoiceFailure(chatId, e);
                 return;
             }
         } else {
@@ -345,6 +358,10 @@ public class TelegramBotService {
         return createMeetingWithReminder(user, null, title, startsAt, endsAt, null, resolvedZone);
     }
 
+    public void reportVoiceFailure(Long chatId, Exception error) {
+        sendMessage(chatId, buildVoiceFailureMessage(error), true);
+    }
+
     public void sendMessage(Long chatId, String text) {
         sendMessage(chatId, text, false);
     }
@@ -737,25 +754,8 @@ public class TelegramBotService {
         meeting.setExternalLink(externalLink);
         meeting.setStatus(MeetingStatus.CONFIRMED);
 
-        GoogleCalendarService.CreatedGoogleEvent googleEvent = googleCalendarService.createEvent(
-                user,
-                meeting.getTitle(),
-                startsAt,
-                endsAt,
-                externalLink,
-                zoneId == null ? DEFAULT_ZONE : zoneId
-        );
-        if (googleEvent != null) {
-            if (googleEvent.eventId() != null && !googleEvent.eventId().isBlank()) {
-                meeting.setGoogleEventId(googleEvent.eventId());
-            }
-            if ((meeting.getExternalLink() == null || meeting.getExternalLink().isBlank())
-                    && googleEvent.htmlLink() != null && !googleEvent.htmlLink().isBlank()) {
-                meeting.setExternalLink(googleEvent.htmlLink());
-            }
-        }
-
         meetingRepository.save(meeting);
+        calendarOutboxService.enqueue(user, meeting, CalendarOutboxOperation.CREATE);
         day.setBusyLevel(day.getBusyLevel() + 1);
         calendarDayRepository.save(day);
 
@@ -787,7 +787,7 @@ public class TelegramBotService {
         if (!googleCalendarService.isEnabled()) {
             return "";
         }
-        if (meeting.getExternalLink() != null && !meeting.getExternalLink().isBlank()) {
+        if (calendarOutboxService.isSyncAvailable(user)) {
             return "";
         }
         return "\n⚠️ Не удалось записать событие в Google Calendar. Проверьте подключение Google и включение Calendar API.";
@@ -816,17 +816,15 @@ public class TelegramBotService {
             label = "неделю";
         }
 
-        List<CalendarEventView> events = new ArrayList<>();
-        for (Meeting meeting : meetingRepository.findByCalendarDay_UserAndCalendarDay_DayDateBetweenOrderByStartsAtAsc(user, from, to)) {
-            events.add(new CalendarEventView(meeting.getTitle(), meeting.getStartsAt(), meeting.getEndsAt(), "internal", meeting.getExternalLink()));
-        }
-        events.addAll(googleCalendarService.listEvents(user, from, to, zoneId));
-        events.sort(Comparator.comparing(CalendarEventView::startsAt));
-
-        List<TaskItem> tasks = taskItemRepository.findByCalendarDay_UserAndCalendarDay_DayDateBetweenOrderByDueAtAsc(user, from, to);
+        ScheduleAssembler.Schedule schedule = scheduleAssembler.assemble(user, from, to, zoneId);
+        List<CalendarEventView> events = schedule.events();
+        List<TaskItem> tasks = schedule.tasks();
+        String googlePendingNote = schedule.googlePending()
+                ? "\n\n⏳ Google Calendar ещё синхронизируется, события из Google могут появиться позже."
+                : "";
 
         if (events.isEmpty() && tasks.isEmpty()) {
-            return "📭 На " + label + " событий и задач не найдено.";
+            return "📭 На " + label + " событий и задач не найдено." + googlePendingNote;
         }
 
         StringBuilder sb = new StringBuilder("📅 Расписание на ").append(label).append(":\n");
@@ -850,6 +848,7 @@ public class TelegramBotService {
             }
         }
 
+        sb.append(googlePendingNote);
         return sb.toString();
     }
 
@@ -0,0 +1,231 @@
+package com.aichef.service;
+
+import com.aichef.config.TelegramProperties;
+import com.aichef.util.StreamCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class TelegramFileFetcher {
+
+    private final RestClient telegramRestClient;
+    private final TelegramProperties telegramProperties;
+    private final long maxBytes;
+    private final long ttlMs;
+    private final Map<String, CachedFile> cache;
+    private final Map<String, CompletableFuture<TelegramFile>> resolving = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<byte[]>> downloading = new ConcurrentHashMap<>();
+
+    public TelegramFileFetcher(
+            RestClient telegramRestClient,
+            TelegramProperties telegramProperties,
+            @Value("${app.telegram.file-fetch.max-bytes:20971520}") long maxBytes,
+            @Value("${app.telegram.file-fetch.cache-ttl-ms:120000}") long ttlMs,
+            @Value("${app.telegram.file-fetch.cache-max-entries:32}") int maxEntries) {
+        this.telegramRestClient = telegramRestClient;
+        this.telegramProperties = telegramProperties;
+        this.maxBytes = Math.max(1, maxBytes);
+        this.ttlMs = Math.max(0, ttlMs);
+        int capacity = Math.max(1, maxEntries);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFile> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    public TelegramFile resolve(String fileId) {
+        CachedFile cached = cached(fileId);
+        if (cached != null) {
+            return cached.file();
+        }
+
+        CompletableFuture<TelegramFile> mine = new CompletableFuture<>();
+        CompletableFuture<TelegramFile> existing = resolving.putIfAbsent(fileId, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        try {
+            TelegramFile file = requestFile(fileId);
+            cache.put(fileId, new CachedFile(file, null, System.currentTimeMillis() + ttlMs));
+            mine.complete(file);
+            return file;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            resolving.remove(fileId, mine);
+        }
+    }
+
+    public <T> T stream(TelegramFile file, Function<InputStream, T> consumer) {
+        while (true) {
+            CachedFile cached = cached(file.fileId());
+            if (cached != null && cached.bytes() != null) {
+                return consumer.apply(new ByteArrayInputStream(cached.bytes()));
+            }
+
+            CompletableFuture<byte[]> mine = new CompletableFuture<>();
+            CompletableFuture<byte[]> existing = downloading.putIfAbsent(file.fileId(), mine);
+            if (existing == null) {
+                return fetch(file, consumer, mine);
+            }
+            byte[] shared;
+            try {
+                shared = existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Telegram file download.", e);
+            } catch (ExecutionException e) {
+                shared = null;
+            }
+            if (shared != null) {
+                return consumer.apply(new ByteArrayInputStream(shared));
+            }
+        }
+    }
+
+    private <T> T fetch(TelegramFile file, Function<InputStream, T> consumer, CompletableFuture<byte[]> shared) {
+        StreamCapture capture = new StreamCapture();
+        capture.completion().thenAccept(shared::complete);
+        try {
+            T result = telegramRestClient.get()
+                    .uri("/file/bot{token}/{filePath}", telegramProperties.botToken(), file.filePath())
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new IllegalStateException("Telegram file download failed. status=" + response.getStatusCode());
+                        }
+                        return consumer.apply(capture.capture(limited(response.getBody(), file)));
+                    });
+            remember(file, capture);
+            return result;
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Telegram file download error: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            remember(file, capture);
+            throw e;
+        } finally {
+            shared.complete(null);
+            downloading.remove(file.fileId(), shared);
+        }
+    }
+
+    public byte[] download(TelegramFile file) {
+        byte[] bytes = stream(file, body -> {
+            try {
+                return body.readAllBytes();
+            } catch (IOException e) {
+                throw new IllegalStateException("Telegram file download error: " + e.getMessage(), e);
+            }
+        });
+        if (bytes.length == 0) {
+            throw new IllegalStateException("Downloaded voice file is empty.");
+        }
+        return bytes;
+    }
+
+    private TelegramFile requestFile(String fileId) {
+        try {
+            Map<?, ?> response = telegramRestClient.get()
+                    .uri("/bot{token}/getFile?file_id={fileId}", telegramProperties.botToken(), fileId)
+                    .retrieve()
+                    .body(Map.class);
+            if (response == null || !Boolean.TRUE.equals(response.get("ok"))) {
+                throw new IllegalStateException("Telegram getFile failed: " + response);
+            }
+            Object resultObj = response.get("result");
+            if (!(resultObj instanceof Map<?, ?> resultMap)) {
+                throw new IllegalStateException("Telegram getFile has no result.");
+            }
+            Object filePath = resultMap.get("file_path");
+            if (!(filePath instanceof String fp) || fp.isBlank()) {
+                throw new IllegalStateException("Telegram file_path is empty.");
+            }
+            long fileSize = resultMap.get("file_size") instanceof Number size ? size.longValue() : -1;
+            if (fileSize > maxBytes) {
+                throw new IllegalStateException("Telegram file is too large: " + fileSize + " bytes, limit " + maxBytes);
+            }
+            String url = telegramProperties.apiBase() + "/file/bot" + telegramProperties.botToken() + "/" + fp;
+            return new TelegramFile(fileId, fp, fileSize, url);
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Telegram getFile error: " + e.getMessage(), e);
+        }
+    }
+
+    private InputStream limited(InputStream body, TelegramFile file) {
+        return new FilterInputStream(body) {
+            private long read;
+
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) {
+                    count(1);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int count = super.read(bytes, offset, length);
+                if (count > 0) {
+                    count(count);
+                }
+                return count;
+            }
+
+            private void count(int bytes) throws IOException {
+                read += bytes;
+                if (read > maxBytes) {
+                    throw new IOException("Telegram file " + file.fileId() + " exceeds limit of " + maxBytes + " bytes");
+                }
+            }
+        };
+    }
+
+    private void remember(TelegramFile file, StreamCapture capture) {
+        if (ttlMs > 0 && capture.isComplete()) {
+            cache.put(file.fileId(), new CachedFile(file, capture.bytes(), System.currentTimeMillis() + ttlMs));
+        }
+    }
+
+    private CachedFile cached(String fileId) {
+        CachedFile cached = cache.get(fileId);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAtMs() < System.currentTimeMillis()) {
+            cache.remove(fileId, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public record TelegramFile(String fileId, String filePath, long fileSize, String url) {
+    }
+
+    private record CachedFile(TelegramFile file, byte[] bytes, long expiresAtMs) {
+    }
+}
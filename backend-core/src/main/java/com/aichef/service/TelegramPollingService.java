@@ -30,18 +30,21 @@ public class TelegramPollingService {
     private final TelegramBotService telegramBotService;
     private final ObjectMapper objectMapper;
     private final Executor telegramUpdateExecutor;
+    private final VoiceTranscriptionScheduler voiceTranscriptionScheduler;
 
     @Autowired
     public TelegramPollingService(TelegramProperties properties,
                                   RestClient telegramRestClient,
                                   TelegramBotService telegramBotService,
                                   ObjectMapper objectMapper,
-                                  @Qualifier("telegramUpdateExecutor") Executor telegramUpdateExecutor) {
+                                  @Qualifier("telegramUpdateExecutor") Executor telegramUpdateExecutor,
+                                  VoiceTranscriptionScheduler voiceTranscriptionScheduler) {
         this.properties = properties;
         this.telegramRestClient = telegramRestClient;
         this.telegramBotService = telegramBotService;
         this.objectMapper = objectMapper;
         this.telegramUpdateExecutor = telegramUpdateExecutor;
+        this.voiceTranscriptionScheduler = voiceTranscriptionScheduler;
     }
 
     private final AtomicLong offset = new AtomicLong(0);
@@ -82,6 +85,10 @@ public class TelegramPollingService {
                 }
                 log.info("Polled Telegram update. updateId={}, hasMessage={}",
                         update.update_id(), update.message() != null);
+                if (update.message() != null && update.message().chat() != null && update.message().voice() != null) {
+                    voiceTranscriptionScheduler.submit(update);
+                    continue;
+                }
                 telegramUpdateExecutor.execute(() -> {
                     try {
                         telegramBotService.handleUpdate(update);
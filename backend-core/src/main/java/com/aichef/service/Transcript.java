@@ -0,0 +1,16 @@
+package com.aichef.service;
+
+import java.util.List;
+
+public record Transcript(
+        String text,
+        List<TranscriptWord> words
+) {
+
+    public Double averageConfidence() {
+        if (words == null || words.isEmpty()) {
+            return null;
+        }
+        return words.stream().mapToDouble(TranscriptWord::confidence).average().orElse(0);
+    }
+}
@@ -0,0 +1,9 @@
+package com.aichef.service;
+
+public record TranscriptWord(
+        String word,
+        double start,
+        double end,
+        double confidence
+) {
+}
@@ -4,6 +4,9 @@ public record VoiceTranscriptionResult(
         String text,
         String telegramFileUrl,
         String mimeType,
-        Integer durationSec
+        Integer durationSec,
+        String engine,
+        String model,
+        Double confidence
 ) {
 }
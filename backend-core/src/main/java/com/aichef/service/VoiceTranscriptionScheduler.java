@@ -0,0 +1,172 @@
+package com.aichef.service;
+
+import com.aichef.dto.TelegramWebhookUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class VoiceTranscriptionScheduler {
+
+    private static final int DEFAULT_DURATION_SEC = 30;
+
+    private final TelegramBotService telegramBotService;
+    private final VoiceTranscriptionService voiceTranscriptionService;
+    private final Executor telegramUpdateExecutor;
+    private final long agingMsPerAudioSec;
+    private final long dedupTtlMs;
+    private final int workers;
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(64,
+            Comparator.comparingLong(Job::rank).thenComparingLong(Job::sequence));
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final Map<String, Long> recentUpdates;
+    private final List<Thread> threads = new ArrayList<>();
+    private final Timer queueWait;
+    private volatile boolean running = true;
+
+    public VoiceTranscriptionScheduler(
+            TelegramBotService telegramBotService,
+            VoiceTranscriptionService voiceTranscriptionService,
+            @Qualifier("telegramUpdateExecutor") Executor telegramUpdateExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.stt-scheduler.threads:0}") int threads,
+            @Value("${app.ai.stt-scheduler.aging-ms-per-audio-sec:1000}") long agingMsPerAudioSec,
+            @Value("${app.ai.stt-scheduler.dedup-ttl-ms:600000}") long dedupTtlMs,
+            @Value("${app.ai.stt-scheduler.dedup-max-entries:10000}") int dedupMaxEntries) {
+        this.telegramBotService = telegramBotService;
+        this.voiceTranscriptionService = voiceTranscriptionService;
+        this.telegramUpdateExecutor = telegramUpdateExecutor;
+        this.agingMsPerAudioSec = Math.max(0, agingMsPerAudioSec);
+        this.dedupTtlMs = Math.max(0, dedupTtlMs);
+        int dedupCapacity = Math.max(1, dedupMaxEntries);
+        this.recentUpdates = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > dedupCapacity;
+            }
+        };
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.workers = threads <= 0 ? cores : Math.min(threads, cores);
+
+        meterRegistry.gauge("stt.scheduler.queue.depth", queue, PriorityBlockingQueue::size);
+        meterRegistry.gauge("stt.scheduler.busy", busy);
+        this.queueWait = Timer.builder("stt.scheduler.queue.wait").register(meterRegistry);
+
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "stt-scheduler-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+            this.threads.add(thread);
+        }
+        log.info("Voice transcription scheduler started. workers={}, agingMsPerAudioSec={}", workers, this.agingMsPerAudioSec);
+    }
+
+    public void submit(TelegramWebhookUpdate update) {
+        TelegramWebhookUpdate.Voice voice = update.message().voice();
+        Long chatId = update.message().chat().id();
+        int durationSec = voice.duration() == null || voice.duration() <= 0 ? DEFAULT_DURATION_SEC : voice.duration();
+        String dedupKey = update.update_id() != null
+                ? "update:" + update.update_id()
+                : "voice:" + chatId + ":" + voice.file_unique_id();
+        long enqueuedAtMs = System.currentTimeMillis();
+        Job job = new Job(update, chatId, durationSec, enqueuedAtMs + durationSec * agingMsPerAudioSec,
+                sequence.incrementAndGet(), System.nanoTime());
+
+        int position;
+        synchronized (this) {
+            Long seenAtMs = recentUpdates.get(dedupKey);
+            if (seenAtMs != null && enqueuedAtMs - seenAtMs < dedupTtlMs) {
+                log.info("Duplicate voice update ignored. chatId={}, key={}", chatId, dedupKey);
+                return;
+            }
+            recentUpdates.put(dedupKey, enqueuedAtMs);
+            queue.add(job);
+            position = positionOf(job);
+        }
+        log.info("Voice queued for transcription. chatId={}, durationSec={}, position={}, busy={}/{}",
+                chatId, durationSec, position, busy.get(), workers);
+        if (position > 0) {
+            telegramBotService.sendMessage(chatId, "🎙 Распознаю голосовое, вы #" + position + " в очереди.", false);
+        }
+    }
+
+    private int positionOf(Job job) {
+        if (busy.get() < workers) {
+            return 0;
+        }
+        int ahead = 0;
+        for (Job queued : queue) {
+            if (queue.comparator().compare(queued, job) <= 0) {
+                ahead++;
+            }
+        }
+        return ahead;
+    }
+
+    private void work() {
+        while (running) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            busy.incrementAndGet();
+            try {
+                queueWait.record(System.nanoTime() - job.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                transcribe(job);
+            } finally {
+                busy.decrementAndGet();
+            }
+        }
+    }
+
+    private void transcribe(Job job) {
+        TelegramWebhookUpdate.Voice voice = job.update().message().voice();
+        VoiceTranscriptionResult result;
+        try {
+            result = voiceTranscriptionService.transcribe(
+                    voice.file_id(), voice.file_unique_id(), voice.mime_type(), voice.duration());
+        } catch (Exception e) {
+            log.error("Voice transcription failed. chatId={}, error={}", job.chatId(), e.getMessage(), e);
+            telegramBotService.reportVoiceFailure(job.chatId(), e);
+            return;
+        }
+        telegramUpdateExecutor.execute(() -> {
+            try {
+                telegramBotService.handleUpdate(job.update(), result);
+            } catch (Exception e) {
+                log.error("Failed to process transcribed voice update. updateId={}, error={}",
+                        job.update().update_id(), e.getMessage(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+    }
+
+    private record Job(TelegramWebhookUpdate update, Long chatId, int durationSec, long rank, long sequence,
+                       long enqueuedAtNanos) {
+    }
+}
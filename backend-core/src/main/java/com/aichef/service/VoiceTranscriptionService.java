@@ -2,4 +2,8 @@ package com.aichef.service;
 
 public interface VoiceTranscriptionService {
     VoiceTranscriptionResult transcribe(String fileId, String mimeType, Integer durationSec);
+
+    default VoiceTranscriptionResult transcribe(String fileId, String fileUniqueId, String mimeType, Integer durationSec) {
+        return transcribe(fileId, mimeType, durationSec);
+    }
 }
@@ -0,0 +1,438 @@
+package com.aichef.service;
+
+import com.aichef.config.AiProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class VoskWorkerPool {
+
+    private static final byte FRAME_JOB = 'J';
+    private static final byte FRAME_AUDIO = 'A';
+    private static final byte FRAME_END = 'E';
+    private static final byte FRAME_PING = 'P';
+    private static final byte FRAME_READY = 'O';
+    private static final byte FRAME_RESULT = 'R';
+    private static final int AUDIO_FRAME_SIZE = 64 * 1024;
+    private static final int MAX_RESPONSE_FRAME = 16 * 1024 * 1024;
+    private static final long CANCEL_CHECK_INTERVAL_MS = 200;
+
+    private final AiProperties aiProperties;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int size;
+    private final long jobTimeoutMs;
+    private final long startupTimeoutMs;
+    private final long pingTimeoutMs;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final AtomicBoolean replenishing = new AtomicBoolean();
+    private final ScheduledExecutorService watchdog;
+    private final ExecutorService restarter;
+    private volatile boolean startFailed;
+    private final Counter restarts;
+    private final Counter failures;
+    private final Timer jobTimer;
+    private final Timer queueTimer;
+
+    public VoskWorkerPool(
+            AiProperties aiProperties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.vosk-pool.enabled:true}") boolean enabled,
+            @Value("${app.ai.vosk-pool.size:2}") int size,
+            @Value("${app.ai.vosk-pool.job-timeout-ms:90000}") long jobTimeoutMs,
+            @Value("${app.ai.vosk-pool.startup-timeout-ms:120000}") long startupTimeoutMs,
+            @Value("${app.ai.vosk-pool.ping-timeout-ms:5000}") long pingTimeoutMs) {
+        this.aiProperties = aiProperties;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.size = Math.max(1, size);
+        this.jobTimeoutMs = Math.max(1000, jobTimeoutMs);
+        this.startupTimeoutMs = Math.max(1000, startupTimeoutMs);
+        this.pingTimeoutMs = Math.max(100, pingTimeoutMs);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("vosk-watchdog")
+                .daemon(true)
+                .factory());
+        this.restarter = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("vosk-restart")
+                .daemon(true)
+                .factory());
+
+        Gauge.builder("vosk.pool.queue.depth", waiting, AtomicInteger::get)
+                .description("Voice jobs waiting for a free Vosk worker")
+                .register(meterRegistry);
+        Gauge.builder("vosk.pool.workers.busy", busy, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("vosk.pool.workers.idle", idle, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("vosk.pool.workers.alive", workers, List::size).register(meterRegistry);
+        this.restarts = Counter.builder("vosk.pool.restarts").register(meterRegistry);
+        this.failures = Counter.builder("vosk.pool.job.failures").register(meterRegistry);
+        this.jobTimer = Timer.builder("vosk.pool.job").register(meterRegistry);
+        this.queueTimer = Timer.builder("vosk.pool.queue.wait").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled && aiProperties.hasVoskModelPath();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String transcribe(byte[] audio, String format) {
+        return transcribe(new ByteArrayInputStream(audio), format);
+    }
+
+    public String transcribe(InputStream audio, String format) {
+        return transcribeDetailed(audio, format).text();
+    }
+
+    public Transcript transcribeDetailed(InputStream audio, String format) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Vosk worker pool is disabled.");
+        }
+        if (workers.size() < size) {
+            requestReplenish();
+        }
+        if (workers.isEmpty() && startFailed) {
+            throw new IllegalStateException("No Vosk workers are running.");
+        }
+
+        long queuedAt = System.nanoTime();
+        waiting.incrementAndGet();
+        Worker worker;
+        try {
+            worker = idle.poll(jobTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Vosk worker.", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        if (worker == null) {
+            throw new IllegalStateException("No Vosk worker became available within " + jobTimeoutMs + "ms");
+        }
+
+        busy.incrementAndGet();
+        long startedAt = System.nanoTime();
+        boolean healthy = false;
+        try {
+            Transcript transcript = worker.runJob(jobSequence.incrementAndGet(), audio, format);
+            healthy = true;
+            return transcript;
+        } catch (WorkerJobException e) {
+            healthy = true;
+            failures.increment();
+            throw new IllegalStateException("Vosk worker failed: " + e.getMessage(), e);
+        } catch (Exception e) {
+            failures.increment();
+            throw new IllegalStateException("Vosk worker crashed: " + e.getMessage(), e);
+        } finally {
+            busy.decrementAndGet();
+            jobTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            if (healthy && worker.isAlive()) {
+                idle.offer(worker);
+            } else {
+                replace(worker);
+            }
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.ai.vosk-pool.health-check-interval-ms:30000}",
+            initialDelayString = "${app.ai.vosk-pool.initial-delay-ms:0}"
+    )
+    public void healthCheck() {
+        if (!isEnabled()) {
+            return;
+        }
+        requestReplenish();
+        List<Worker> checked = new ArrayList<>();
+        idle.drainTo(checked);
+        for (Worker worker : checked) {
+            if (worker.ping()) {
+                idle.offer(worker);
+            } else {
+                log.warn("Vosk worker failed health check, restarting. pid={}", worker.pid());
+                replace(worker);
+            }
+        }
+    }
+
+    private void requestReplenish() {
+        if (!replenishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            restarter.execute(this::replenish);
+        } catch (RejectedExecutionException e) {
+            replenishing.set(false);
+        }
+    }
+
+    private void replenish() {
+        boolean failed = false;
+        try {
+            workers.removeIf(worker -> worker.retired);
+            while (workers.size() < size) {
+                Worker worker = new Worker();
+                workers.add(worker);
+                if (!worker.start()) {
+                    workers.remove(worker);
+                    failed = true;
+                    break;
+                }
+                idle.offer(worker);
+            }
+        } catch (Exception e) {
+            failed = true;
+            log.warn("Failed to restart Vosk worker: {}", e.getMessage());
+        } finally {
+            startFailed = failed;
+            replenishing.set(false);
+        }
+        if (!failed && workers.size() < size) {
+            requestReplenish();
+        }
+    }
+
+    private void replace(Worker worker) {
+        worker.retire();
+        idle.remove(worker);
+        workers.remove(worker);
+        restarts.increment();
+        requestReplenish();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        restarter.shutdownNow();
+        for (Worker worker : workers) {
+            worker.retire();
+        }
+        workers.clear();
+        idle.clear();
+        watchdog.shutdownNow();
+    }
+
+    private String resolvePythonExecutable() {
+        String configured = aiProperties.voskPython();
+        if (configured == null || configured.isBlank()) {
+            return ".venv/bin/python";
+        }
+        return configured.trim();
+    }
+
+    private static final class WorkerJobException extends Exception {
+        private WorkerJobException(String message) {
+            super(message);
+        }
+    }
+
+    private final class Worker {
+        private Process process;
+        private DataOutputStream requests;
+        private DataInputStream responses;
+        private volatile boolean retired;
+
+        private boolean start() {
+            try {
+                Path script = Path.of("scripts", "vosk_transcribe.py").toAbsolutePath();
+                String modelPath = Path.of(aiProperties.voskModelPath().trim()).toAbsolutePath().toString();
+                process = new ProcessBuilder(resolvePythonExecutable(), script.toString(), "--model", modelPath, "--serve")
+                        .directory(Path.of(".").toFile())
+                        .start();
+                requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream(), AUDIO_FRAME_SIZE + 8));
+                responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+                Thread.ofVirtual().name("vosk-stderr-" + process.pid()).start(this::drainStderr);
+
+                long startedAt = System.nanoTime();
+                JsonNode ready = withTimeout(startupTimeoutMs, () -> readFrame(FRAME_READY));
+                log.info("Vosk worker started. pid={}, startupMs={}, ready={}",
+                        process.pid(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), ready);
+                return true;
+            } catch (Exception e) {
+                log.warn("Failed to start Vosk worker: {}", e.getMessage());
+                retire();
+                return false;
+            }
+        }
+
+        private synchronized Transcript runJob(long jobId, InputStream audio, String format) throws Exception {
+            JsonNode result = withTimeout(jobTimeoutMs, () -> {
+                writeFrame(FRAME_JOB, objectMapper.writeValueAsBytes(Map.of("id", jobId, "format", format)), 0, -1);
+                byte[] buffer = new byte[AUDIO_FRAME_SIZE];
+                String sourceError = null;
+                while (true) {
+                    int read;
+                    try {
+                        read = audio.read(buffer);
+                    } catch (IOException e) {
+                        sourceError = e.getMessage();
+                        break;
+                    }
+                    if (read < 0) {
+                        break;
+                    }
+                    if (read > 0) {
+                        writeFrame(FRAME_AUDIO, buffer, 0, read);
+                        requests.flush();
+                    }
+                }
+                writeFrame(FRAME_END, new byte[0], 0, 0);
+                requests.flush();
+                JsonNode response = readFrame(FRAME_RESULT);
+                if (sourceError != null) {
+                    return objectMapper.createObjectNode().put("error", "Audio source failed: " + sourceError);
+                }
+                return response;
+            });
+            if (result.hasNonNull("error")) {
+                throw new WorkerJobException(result.get("error").asText());
+            }
+            List<TranscriptWord> words = new ArrayList<>();
+            for (JsonNode word : result.path("words")) {
+                words.add(new TranscriptWord(word.path("word").asText(""), word.path("start").asDouble(),
+                        word.path("end").asDouble(), word.path("conf").asDouble()));
+            }
+            return new Transcript(result.path("text").asText("").trim(), words);
+        }
+
+        private synchronized boolean ping() {
+            try {
+                withTimeout(pingTimeoutMs, () -> {
+                    writeFrame(FRAME_PING, new byte[0], 0, 0);
+                    requests.flush();
+                    return readFrame(FRAME_READY);
+                });
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private JsonNode withTimeout(long timeoutMs, FrameCall call) throws Exception {
+            ScheduledFuture<?> kill = watchdog.schedule(() -> {
+                log.warn("Vosk worker timed out after {}ms, killing. pid={}", timeoutMs, pid());
+                retire();
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            Thread caller = Thread.currentThread();
+            ScheduledFuture<?> cancelWatch = watchdog.scheduleAtFixedRate(() -> {
+                if (caller.isInterrupted() && !retired) {
+                    log.info("Vosk job cancelled by caller, killing worker. pid={}", pid());
+                    retire();
+                }
+            }, CANCEL_CHECK_INTERVAL_MS, CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            try {
+                return call.run();
+            } catch (IOException e) {
+                if (caller.isInterrupted()) {
+                    throw new IllegalStateException("Vosk job cancelled.", e);
+                }
+                if (retired) {
+                    throw new IllegalStateException("Vosk worker timed out after " + timeoutMs + "ms", e);
+                }
+                throw e;
+            } finally {
+                kill.cancel(false);
+                cancelWatch.cancel(false);
+            }
+        }
+
+        private void writeFrame(byte type, byte[] payload, int offset, int length) throws IOException {
+            int size = length < 0 ? payload.length : length;
+            requests.writeByte(type);
+            requests.writeInt(size);
+            requests.write(payload, offset, size);
+        }
+
+        private JsonNode readFrame(byte expectedType) throws IOException {
+            byte type = responses.readByte();
+            int length = responses.readInt();
+            if (length < 0 || length > MAX_RESPONSE_FRAME) {
+                throw new IOException("Invalid Vosk frame length: " + length);
+            }
+            byte[] payload = responses.readNBytes(length);
+            if (payload.length != length) {
+                throw new IOException("Vosk worker closed the stream.");
+            }
+            if (type != expectedType) {
+                throw new IOException("Unexpected Vosk frame type: " + (char) type);
+            }
+            return objectMapper.readTree(payload);
+        }
+
+        private void drainStderr() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("vosk[{}]: {}", process.pid(), line);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private boolean isAlive() {
+            return !retired && process != null && process.isAlive();
+        }
+
+        private long pid() {
+            return process == null ? -1 : process.pid();
+        }
+
+        private void retire() {
+            retired = true;
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrameCall {
+        JsonNode run() throws IOException;
+    }
+}
@@ -0,0 +1,138 @@
+package com.aichef.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class WhisperServerClient {
+
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final long timeoutMs;
+    private final Semaphore permits;
+    private final RestClient restClient;
+
+    public WhisperServerClient(
+            ObjectMapper objectMapper,
+            @Value("${app.ai.whisper-server.url:}") String baseUrl,
+            @Value("${app.ai.whisper-server.max-concurrency:1}") int maxConcurrency,
+            @Value("${app.ai.whisper-server.timeout-ms:300000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl == null ? "" : baseUrl.trim();
+        this.timeoutMs = Math.max(1000, timeoutMs);
+        this.permits = new Semaphore(Math.max(1, maxConcurrency), true);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(this.timeoutMs));
+        this.restClient = this.baseUrl.isEmpty()
+                ? null
+                : RestClient.builder().baseUrl(this.baseUrl).requestFactory(requestFactory).build();
+    }
+
+    public boolean isEnabled() {
+        return restClient != null;
+    }
+
+    public String transcribe(byte[] audio, String format, String model) {
+        return requireText(transcribe(format, model, false, null, null, spec -> spec.body(audio)));
+    }
+
+    public String transcribe(InputStream audio, String format, String model) {
+        return requireText(transcribe(format, model, false, null, null, spec -> spec.body(output -> audio.transferTo(output))));
+    }
+
+    public Transcript transcribeDetailed(InputStream audio, String format, String model) {
+        Transcript transcript = transcribe(format, model, true, null, null, spec -> spec.body(output -> audio.transferTo(output)));
+        requireText(transcript);
+        return transcript;
+    }
+
+    public String transcribeSpan(byte[] audio, String format, String model, double startSec, double endSec) {
+        return transcribe(format, model, false, startSec, endSec, spec -> spec.body(audio)).text();
+    }
+
+    private String requireText(Transcript transcript) {
+        if (transcript.text().isBlank()) {
+            throw new IllegalStateException("Whisper returned empty text.");
+        }
+        return transcript.text();
+    }
+
+    private Transcript transcribe(String format, String model, boolean withWords, Double startSec, Double endSec,
+                                  Consumer<RestClient.RequestBodySpec> bodyWriter) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("APP_WHISPER_SERVER_URL is empty. Whisper server is disabled.");
+        }
+        acquire();
+        long startedAt = System.nanoTime();
+        try {
+            RestClient.RequestBodySpec spec = restClient.post()
+                    .uri(uri -> uri.path("/transcribe")
+                            .queryParam("model", model)
+                            .queryParam("format", format)
+                            .queryParam("words", withWords ? "1" : "0")
+                            .queryParamIfPresent("start", Optional.ofNullable(startSec))
+                            .queryParamIfPresent("end", Optional.ofNullable(endSec))
+                            .build())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM);
+            bodyWriter.accept(spec);
+            JsonNode response = spec.exchange((request, httpResponse) -> {
+                JsonNode body = readJson(httpResponse.getBody());
+                if (httpResponse.getStatusCode().isError()) {
+                    throw new IllegalStateException("Whisper server failed. status="
+                            + httpResponse.getStatusCode() + ", error=" + body.path("error").asText(""));
+                }
+                return body;
+            });
+            String text = response.path("text").asText("").trim();
+            List<TranscriptWord> words = new ArrayList<>();
+            for (JsonNode word : response.path("words")) {
+                words.add(new TranscriptWord(word.path("word").asText(""), word.path("start").asDouble(),
+                        word.path("end").asDouble(), word.path("conf").asDouble()));
+            }
+            log.debug("Whisper server transcription finished. model={}, elapsedMs={}, serverMs={}",
+                    model, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), response.path("elapsed_ms").asLong());
+            return new Transcript(text, words);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Whisper server is busy, no slot within " + timeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Whisper server slot.", e);
+        }
+    }
+
+    private JsonNode readJson(InputStream body) throws IOException {
+        JsonNode node = objectMapper.readTree(body);
+        return node == null ? objectMapper.createObjectNode() : node;
+    }
+}
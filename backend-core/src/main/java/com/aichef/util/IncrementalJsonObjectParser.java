@@ -0,0 +1,123 @@
+package com.aichef.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public final class IncrementalJsonObjectParser {
+
+    private final JsonParser parser;
+    private final ObjectNode fields;
+    private final StringBuilder raw = new StringBuilder();
+    private int depth;
+    private boolean started;
+    private boolean complete;
+    private boolean broken;
+    private String currentField;
+
+    public IncrementalJsonObjectParser(ObjectMapper objectMapper) {
+        try {
+            JsonFactory factory = objectMapper.getFactory();
+            this.parser = factory.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create non-blocking JSON parser", e);
+        }
+        this.fields = objectMapper.createObjectNode();
+    }
+
+    public void feed(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        raw.append(chunk);
+        if (broken || complete) {
+            return;
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                consume(token);
+                if (complete) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            broken = true;
+        }
+    }
+
+    private void consume(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> {
+                depth++;
+                started = true;
+            }
+            case END_OBJECT, END_ARRAY -> {
+                depth--;
+                if (started && depth == 0) {
+                    complete = true;
+                }
+            }
+            case FIELD_NAME -> {
+                if (depth == 1) {
+                    currentField = parser.currentName();
+                }
+            }
+            case VALUE_STRING -> {
+                if (depth == 1 && currentField != null) {
+                    fields.put(currentField, parser.getText());
+                }
+            }
+            case VALUE_NUMBER_INT -> {
+                if (depth == 1 && currentField != null) {
+                    fields.put(currentField, parser.getLongValue());
+                }
+            }
+            case VALUE_NUMBER_FLOAT -> {
+                if (depth == 1 && currentField != null) {
+                    fields.put(currentField, parser.getDoubleValue());
+                }
+            }
+            case VALUE_TRUE, VALUE_FALSE -> {
+                if (depth == 1 && currentField != null) {
+                    fields.put(currentField, token == JsonToken.VALUE_TRUE);
+                }
+            }
+            case VALUE_NULL -> {
+                if (depth == 1 && currentField != null) {
+                    fields.putNull(currentField);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    public String textField(String name) {
+        return fields.hasNonNull(name) ? fields.get(name).asText() : null;
+    }
+
+    public ObjectNode fields() {
+        return fields;
+    }
+
+    public String raw() {
+        return raw.toString();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean isBroken() {
+        return broken;
+    }
+}
@@ -0,0 +1,114 @@
+package com.aichef.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public final class MicroBatcher<T, R> implements AutoCloseable {
+
+    private final BlockingQueue<Item<T, R>> queue = new LinkedBlockingQueue<>();
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final Function<List<T>, CompletableFuture<List<R>>> handler;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, int maxSize, long maxWaitMs, Function<List<T>, CompletableFuture<List<R>>> handler) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.handler = handler;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public CompletableFuture<R> submit(T input) {
+        Item<T, R> item = new Item<>(input);
+        if (!running) {
+            item.result.completeExceptionally(new IllegalStateException("Batcher is closed."));
+            return item.result;
+        }
+        queue.add(item);
+        return item.result;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void run() {
+        while (running) {
+            List<Item<T, R>> batch = new ArrayList<>(maxSize);
+            try {
+                batch.add(queue.take());
+                long until = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxSize) {
+                    long left = until - System.nanoTime();
+                    Item<T, R> next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                failAll(batch, new IllegalStateException("Batcher is closed."));
+                break;
+            }
+            dispatch(batch);
+        }
+        List<Item<T, R>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        failAll(remaining, new IllegalStateException("Batcher is closed."));
+    }
+
+    private void dispatch(List<Item<T, R>> batch) {
+        List<Item<T, R>> live = batch.stream().filter(item -> !item.result.isDone()).toList();
+        if (live.isEmpty()) {
+            return;
+        }
+        CompletableFuture<List<R>> results;
+        try {
+            results = handler.apply(live.stream().map(item -> item.input).toList());
+        } catch (Throwable e) {
+            failAll(live, e);
+            return;
+        }
+        results.whenComplete((values, error) -> {
+            for (int i = 0; i < live.size(); i++) {
+                CompletableFuture<R> target = live.get(i).result;
+                if (error != null) {
+                    target.completeExceptionally(error);
+                } else if (values == null || i >= values.size()) {
+                    target.completeExceptionally(new IllegalStateException("Batch result is missing item " + i));
+                } else {
+                    target.complete(values.get(i));
+                }
+            }
+        });
+    }
+
+    private void failAll(List<Item<T, R>> items, Throwable error) {
+        for (Item<T, R> item : items) {
+            item.result.completeExceptionally(error);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private static final class Item<T, R> {
+        private final T input;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private Item(T input) {
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.aichef.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class SilenceSplitter {
+
+    private static final int FRAME_MS = 30;
+    private static final int SMOOTHING_FRAMES = 5;
+    private static final double MIN_SILENCE_RMS = 150;
+
+    private SilenceSplitter() {
+    }
+
+    public static List<byte[]> split(byte[] pcm, int sampleRate, int parts, double searchWindowSec) {
+        int frameBytes = sampleRate * 2 * FRAME_MS / 1000;
+        int frameCount = pcm.length / frameBytes;
+        if (parts <= 1 || frameCount < parts * SMOOTHING_FRAMES * 2) {
+            return List.of(pcm);
+        }
+
+        double[] energy = smooth(frameRms(pcm, frameBytes, frameCount));
+        double threshold = silenceThreshold(energy);
+        int window = Math.max(SMOOTHING_FRAMES, (int) (searchWindowSec * 1000 / FRAME_MS));
+        int target = frameCount / parts;
+
+        List<byte[]> segments = new ArrayList<>(parts);
+        int start = 0;
+        for (int part = 1; part < parts; part++) {
+            int desired = part * target;
+            int from = Math.max(start + SMOOTHING_FRAMES, desired - window);
+            int to = Math.min(frameCount - SMOOTHING_FRAMES, desired + window);
+            if (from >= to) {
+                continue;
+            }
+            int cut = quietestFrame(energy, from, to, desired, threshold);
+            segments.add(Arrays.copyOfRange(pcm, start * frameBytes, cut * frameBytes));
+            start = cut;
+        }
+        segments.add(Arrays.copyOfRange(pcm, start * frameBytes, pcm.length));
+        return segments;
+    }
+
+    private static double[] frameRms(byte[] pcm, int frameBytes, int frameCount) {
+        double[] rms = new double[frameCount];
+        for (int frame = 0; frame < frameCount; frame++) {
+            int offset = frame * frameBytes;
+            double sum = 0;
+            for (int i = offset; i + 1 < offset + frameBytes; i += 2) {
+                int sample = (short) ((pcm[i] & 0xff) | (pcm[i + 1] << 8));
+                sum += (double) sample * sample;
+            }
+            rms[frame] = Math.sqrt(sum / (frameBytes / 2.0));
+        }
+        return rms;
+    }
+
+    private static double[] smooth(double[] values) {
+        double[] smoothed = new double[values.length];
+        int half = SMOOTHING_FRAMES / 2;
+        for (int i = 0; i < values.length; i++) {
+            int from = Math.max(0, i - half);
+            int to = Math.min(values.length - 1, i + half);
+            double sum = 0;
+            for (int j = from; j <= to; j++) {
+                sum += values[j];
+            }
+            smoothed[i] = sum / (to - from + 1);
+        }
+        return smoothed;
+    }
+
+    private static double silenceThreshold(double[] energy) {
+        double[] sorted = energy.clone();
+        Arrays.sort(sorted);
+        double noiseFloor = sorted[sorted.length / 10];
+        return Math.max(MIN_SILENCE_RMS, noiseFloor * 2.5);
+    }
+
+    private static int quietestFrame(double[] energy, int from, int to, int desired, double threshold) {
+        int best = -1;
+        for (int i = from; i < to; i++) {
+            if (energy[i] <= threshold && (best < 0 || Math.abs(i - desired) < Math.abs(best - desired))) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            return best;
+        }
+        best = from;
+        for (int i = from; i < to; i++) {
+            if (energy[i] < energy[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
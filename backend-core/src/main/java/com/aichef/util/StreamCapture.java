@@ -0,0 +1,69 @@
+package com.aichef.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+public final class StreamCapture {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final CompletableFuture<byte[]> completion = new CompletableFuture<>();
+    private volatile boolean complete;
+
+    public InputStream capture(InputStream source) {
+        return new FilterInputStream(source) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value < 0) {
+                    markComplete();
+                } else {
+                    buffer.write(value);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                if (read < 0) {
+                    markComplete();
+                } else {
+                    buffer.write(bytes, offset, read);
+                }
+                return read;
+            }
+
+            @Override
+            public long skip(long n) {
+                return 0;
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+    }
+
+    public CompletableFuture<byte[]> completion() {
+        return completion;
+    }
+
+    private void markComplete() {
+        if (!complete) {
+            complete = true;
+            completion.complete(buffer.toByteArray());
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public byte[] bytes() {
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,46 @@
+package com.aichef.util;
+
+public final class TranscriptQuality {
+
+    private static final int MIN_REASONABLE_TEXT_LENGTH = 12;
+    private static final int MIN_LETTER_COUNT = 6;
+
+    private TranscriptQuality() {
+    }
+
+    public static boolean isLowQuality(String text) {
+        if (text == null) {
+            return true;
+        }
+        String compact = text.replaceAll("\\s+", " ").trim();
+        if (compact.isBlank()) {
+            return true;
+        }
+        if (compact.length() < MIN_REASONABLE_TEXT_LENGTH) {
+            return true;
+        }
+
+        long letters = compact.chars().filter(Character::isLetter).count();
+        if (letters < MIN_LETTER_COUNT) {
+            return true;
+        }
+
+        long spaces = compact.chars().filter(ch -> ch == ' ').count();
+        long words = spaces + 1;
+        return words <= 2 && compact.length() <= 16;
+    }
+
+    public static double score(String text) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        String compact = text.replaceAll("\\s+", " ").trim();
+        long letters = compact.chars().filter(Character::isLetter).count();
+        long words = compact.chars().filter(ch -> ch == ' ').count() + 1;
+        double letterRatio = (double) letters / compact.length();
+        double score = 0.5 * Math.min(1.0, letters / 40.0)
+                + 0.3 * Math.min(1.0, words / 6.0)
+                + 0.2 * letterRatio;
+        return isLowQuality(compact) ? score * 0.5 : score;
+    }
+}
@@ -0,0 +1,168 @@
+package com.aichef.service;
+
+import com.aichef.domain.model.GoogleCalendarEvent;
+import com.aichef.domain.model.GoogleCalendarSyncState;
+import com.aichef.domain.model.User;
+import com.aichef.repository.GoogleCalendarEventRepository;
+import com.aichef.repository.GoogleCalendarSyncStateRepository;
+import com.aichef.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GoogleCalendarMirrorServiceTest {
+
+    private static final String CALENDAR_ID = "assistant@group.calendar.google.com";
+
+    private final UUID userId = UUID.randomUUID();
+    private final Map<UUID, GoogleCalendarSyncState> syncStates = new ConcurrentHashMap<>();
+    private final Map<String, GoogleCalendarEvent> mirrored = new ConcurrentHashMap<>();
+    private final AtomicInteger googleCalls = new AtomicInteger();
+    private final CountDownLatch firstCallStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstCall = new CountDownLatch(1);
+    private GoogleCalendarMirrorService mirror;
+
+    @BeforeEach
+    void setUp() {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(userId);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        GoogleCalendarService calendarService = mock(GoogleCalendarService.class);
+        when(calendarService.isEnabled()).thenReturn(true);
+        when(calendarService.calendarIdFor(user)).thenReturn(CALENDAR_ID);
+        when(calendarService.listEventChanges(eq(user), eq(CALENDAR_ID), any(), any(), any())).thenAnswer(invocation -> {
+            if (googleCalls.incrementAndGet() == 1) {
+                firstCallStarted.countDown();
+                assertTrue(releaseFirstCall.await(5, TimeUnit.SECONDS));
+                return page("evt-before-reset", "stale-token");
+            }
+            return page("evt-after-reset", "fresh-token");
+        });
+
+        GoogleCalendarSyncState state = new GoogleCalendarSyncState();
+        state.setUserId(userId);
+        state.setCalendarId(CALENDAR_ID);
+        state.setSyncToken("old-token");
+        state.setLastSyncedAt(OffsetDateTime.now());
+        syncStates.put(userId, state);
+
+        mirror = new GoogleCalendarMirrorService(calendarService, eventRepository(), syncStateRepository(),
+                userRepository, mock(GoogleConnectionHealthService.class), true, 300, 1800, 3600, 30, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mirror.shutdown();
+    }
+
+    @Test
+    void resetDuringSyncDropsStaleResults() throws Exception {
+        mirror.markDirty(userId);
+        assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+
+        mirror.reset(userId);
+        releaseFirstCall.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"fresh-token".equals(syncStates.get(userId).getSyncToken())) {
+            assertTrue(System.currentTimeMillis() < deadline, "Mirror did not resync after reset");
+            mirror.syncDueUsers();
+            Thread.sleep(20);
+        }
+
+        assertEquals(Set.of("evt-after-reset"), Set.copyOf(mirrored.keySet()));
+        assertEquals(1L, syncStates.get(userId).getResetGeneration());
+        assertEquals(2, googleCalls.get());
+    }
+
+    private GoogleCalendarService.EventChangesPage page(String eventId, String nextSyncToken) {
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1);
+        CalendarEventView view = new CalendarEventView(eventId, start, start.plusHours(1), "google", null);
+        return new GoogleCalendarService.EventChangesPage(
+                List.of(new GoogleCalendarService.EventChange(eventId, false, view)), null, nextSyncToken);
+    }
+
+    private GoogleCalendarEventRepository eventRepository() {
+        GoogleCalendarEventRepository repository = mock(GoogleCalendarEventRepository.class);
+        when(repository.findByUserIdAndEventIdIn(eq(userId), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> eventIds = invocation.getArgument(1);
+            return eventIds.stream().map(mirrored::get).filter(event -> event != null).toList();
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<GoogleCalendarEvent> events = invocation.getArgument(0);
+            events.forEach(event -> mirrored.put(event.getEventId(), event));
+            return events;
+        });
+        when(repository.deleteAllByUserId(userId)).thenAnswer(invocation -> {
+            int removed = mirrored.size();
+            mirrored.clear();
+            return removed;
+        });
+        return repository;
+    }
+
+    private GoogleCalendarSyncStateRepository syncStateRepository() {
+        GoogleCalendarSyncStateRepository repository = mock(GoogleCalendarSyncStateRepository.class);
+        when(repository.findById(userId)).thenAnswer(invocation -> Optional.ofNullable(syncStates.get(userId)).map(this::copy));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            GoogleCalendarSyncState state = invocation.getArgument(0);
+            syncStates.put(state.getUserId(), copy(state));
+            return state;
+        });
+        when(repository.findResetGeneration(userId)).thenAnswer(invocation -> syncStates.get(userId).getResetGeneration());
+        when(repository.updateNextSyncAt(eq(userId), any())).thenAnswer(invocation -> {
+            syncStates.get(userId).setNextSyncAt(invocation.getArgument(1));
+            return 1;
+        });
+        when(repository.markReset(userId)).thenAnswer(invocation -> {
+            GoogleCalendarSyncState state = syncStates.get(userId);
+            state.setResetGeneration(state.getResetGeneration() == null ? 1 : state.getResetGeneration() + 1);
+            state.setSyncToken(null);
+            state.setPageToken(null);
+            state.setLastSyncedAt(null);
+            return 1;
+        });
+        when(repository.findTop50ByNextSyncAtLessThanEqualOrderByNextSyncAtAsc(any())).thenAnswer(invocation -> {
+            OffsetDateTime now = invocation.getArgument(0);
+            return syncStates.values().stream().filter(state -> !state.getNextSyncAt().isAfter(now)).map(this::copy).toList();
+        });
+        return repository;
+    }
+
+    private GoogleCalendarSyncState copy(GoogleCalendarSyncState source) {
+        GoogleCalendarSyncState copy = new GoogleCalendarSyncState();
+        copy.setUserId(source.getUserId());
+        copy.setCalendarId(source.getCalendarId());
+        copy.setSyncToken(source.getSyncToken());
+        copy.setPageToken(source.getPageToken());
+        copy.setWindowStart(source.getWindowStart());
+        copy.setLastSyncedAt(source.getLastSyncedAt());
+        copy.setNextSyncAt(source.getNextSyncAt());
+        copy.setFailureCount(source.getFailureCount());
+        copy.setLastError(source.getLastError());
+        copy.setResetGeneration(source.getResetGeneration());
+        return copy;
+    }
+}
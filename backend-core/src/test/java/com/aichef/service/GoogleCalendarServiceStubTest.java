@@ -0,0 +1,119 @@
+package com.aichef.service;
+
+import com.aichef.config.GoogleCalendarProperties;
+import com.aichef.domain.model.User;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import com.aichef.stub.GoogleCalendarStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleCalendarServiceStubTest {
+
+    private static final String CALENDAR_ID = "assistant@group.calendar.google.com";
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+
+    private final UUID userId = UUID.randomUUID();
+    private GoogleCalendarStub stub;
+    private GoogleTokenCache tokenCache;
+    private GoogleConnectionHealthService health;
+    private UserGoogleConnection connection;
+    private User user;
+    private GoogleCalendarService calendarService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GoogleCalendarStub();
+        user = mock(User.class);
+        when(user.getId()).thenReturn(userId);
+
+        connection = new UserGoogleConnection();
+        connection.setCalendarId(CALENDAR_ID);
+        connection.setRefreshToken("stub-refresh");
+        UserGoogleConnectionRepository connectionRepository = mock(UserGoogleConnectionRepository.class);
+        when(connectionRepository.findById(userId)).thenReturn(Optional.of(connection));
+        when(connectionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        GoogleCalendarProperties properties = new GoogleCalendarProperties(
+                true, "primary", "client", "secret", "", null, null, stub.tokenUri(), stub.apiBase());
+        GoogleConnectionContextCache connectionContext = new GoogleConnectionContextCache(connectionRepository, 30000, 16);
+        tokenCache = new GoogleTokenCache(properties, connectionRepository, connectionContext, 60, 300, 3600, 60);
+        health = mock(GoogleConnectionHealthService.class);
+        when(health.isAvailable(any())).thenReturn(true);
+        calendarService = new GoogleCalendarService(properties, new ObjectMapper(), connectionRepository, tokenCache,
+                health, new GoogleEventsResponseCache(true, 16), connectionContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenCache.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void refreshesTokenInsertsAndRevalidatesEventList() {
+        OffsetDateTime start = LocalDate.now(ZONE).plusDays(1).atTime(10, 0).atZone(ZONE).toOffsetDateTime();
+        calendarService.insertEvent(user, "aichef1", "Планёрка", start, start.plusHours(1), null, ZONE);
+
+        assertTrue(connection.getAccessToken().startsWith("stub-access-"));
+        assertEquals(1, stub.eventCount(CALENDAR_ID));
+
+        LocalDate day = start.toLocalDate();
+        assertEquals(1, calendarService.listEvents(user, day, day, ZONE).size());
+        assertEquals(1, calendarService.listEvents(user, day, day, ZONE).size());
+        assertEquals(1, stub.notModifiedResponses());
+
+        stub.putEvent(CALENDAR_ID, "external", "Созвон", start.plusHours(2), start.plusHours(3));
+        assertEquals(2, calendarService.listEvents(user, day, day, ZONE).size());
+    }
+
+    @Test
+    void batchInsertReportsPerItemStatus() {
+        OffsetDateTime start = OffsetDateTime.now(ZONE).plusDays(2).withNano(0);
+        stub.putEvent(CALENDAR_ID, "aichef2", "Уже есть", start, start.plusHours(1));
+
+        List<GoogleCalendarService.BatchInsertResult> results = calendarService.batchInsertEvents(user, List.of(
+                new GoogleCalendarService.BatchInsert(UUID.randomUUID(), "aichef1", "Новая", start, start.plusHours(1), null),
+                new GoogleCalendarService.BatchInsert(UUID.randomUUID(), "aichef2", "Уже есть", start, start.plusHours(1), null)
+        ), ZONE);
+
+        assertEquals(List.of(200, 409), results.stream().map(GoogleCalendarService.BatchInsertResult::status).toList());
+        assertEquals(2, stub.eventCount(CALENDAR_ID));
+    }
+
+    @Test
+    void injectedFailuresReachConnectionHealth() {
+        LocalDate day = LocalDate.now(ZONE);
+        stub.setLatency(20, 10);
+        stub.failNext("/events", 401, 1);
+
+        assertEquals(List.of(), calendarService.listEvents(user, day, day, ZONE));
+        verify(health).recordFailure(eq(userId), any());
+        assertEquals(1, stub.injectedErrors());
+
+        stub.clearFaults();
+        stub.failNext("/token", 400, 1);
+        tokenCache.invalidate(userId);
+        connection.setAccessToken(null);
+        assertThrows(IllegalStateException.class, () -> calendarService.insertEvent(
+                user, "aichef3", "Встреча", OffsetDateTime.now(), OffsetDateTime.now().plusHours(1), null, ZONE));
+    }
+}
@@ -0,0 +1,248 @@
+package com.aichef.service;
+
+import com.aichef.config.GoogleCalendarProperties;
+import com.aichef.config.TelegramProperties;
+import com.aichef.controller.GoogleCalendarPushController;
+import com.aichef.domain.model.GoogleCalendarEvent;
+import com.aichef.domain.model.GoogleCalendarSyncState;
+import com.aichef.domain.model.GoogleCalendarWatchChannel;
+import com.aichef.domain.model.User;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.GoogleCalendarEventRepository;
+import com.aichef.repository.GoogleCalendarSyncStateRepository;
+import com.aichef.repository.GoogleCalendarWatchChannelRepository;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import com.aichef.repository.UserRepository;
+import com.aichef.stub.GoogleCalendarStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleCalendarWatchFlowTest {
+
+    private static final String CALENDAR_ID = "assistant@group.calendar.google.com";
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+
+    private final UUID userId = UUID.randomUUID();
+    private final Map<UUID, GoogleCalendarWatchChannel> channels = new ConcurrentHashMap<>();
+    private final Map<String, GoogleCalendarEvent> mirrored = new ConcurrentHashMap<>();
+    private final Map<UUID, GoogleCalendarSyncState> syncStates = new ConcurrentHashMap<>();
+    private GoogleCalendarStub stub;
+    private HttpServer receiver;
+    private User user;
+    private GoogleCalendarEventRepository eventRepository;
+    private GoogleCalendarMirrorService mirror;
+    private GoogleCalendarWatchService watchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GoogleCalendarStub();
+        user = mock(User.class);
+        when(user.getId()).thenReturn(userId);
+
+        UserGoogleConnection connection = new UserGoogleConnection();
+        connection.setCalendarId(CALENDAR_ID);
+        UserGoogleConnectionRepository connectionRepository = mock(UserGoogleConnectionRepository.class);
+        when(connectionRepository.findById(userId)).thenReturn(Optional.of(connection));
+        GoogleTokenCache tokenCache = mock(GoogleTokenCache.class);
+        when(tokenCache.accessToken(userId)).thenReturn("stub-token");
+        GoogleConnectionHealthService health = mock(GoogleConnectionHealthService.class);
+        when(health.isAvailable(any())).thenReturn(true);
+
+        GoogleCalendarProperties properties = new GoogleCalendarProperties(
+                true, "primary", "client", "secret", "", null, null, stub.tokenUri(), stub.apiBase());
+        GoogleCalendarService calendarService = new GoogleCalendarService(properties, new ObjectMapper(),
+                connectionRepository, tokenCache, health, new GoogleEventsResponseCache(true, 16),
+                new GoogleConnectionContextCache(connectionRepository, 30000, 16));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        mirror = new GoogleCalendarMirrorService(calendarService, mirroredEvents(), syncStates(), userRepository,
+                health, true, 300, 1800, 3600, 30, 2);
+
+        GoogleCalendarWatchChannelRepository channelRepository = mock(GoogleCalendarWatchChannelRepository.class);
+        when(channelRepository.save(any())).thenAnswer(invocation -> {
+            GoogleCalendarWatchChannel channel = invocation.getArgument(0);
+            channels.put(channel.getUserId(), channel);
+            return channel;
+        });
+        when(channelRepository.findByChannelId(anyString())).thenAnswer(invocation -> channels.values().stream()
+                .filter(channel -> invocation.getArgument(0).equals(channel.getChannelId()))
+                .findFirst());
+        when(channelRepository.findConnectedUserIdsWithoutChannel())
+                .thenAnswer(invocation -> channels.containsKey(userId) ? List.of() : List.of(userId));
+        when(channelRepository.findTop50ByRenewAtLessThanEqualOrderByRenewAtAsc(any())).thenAnswer(invocation -> {
+            OffsetDateTime now = invocation.getArgument(0);
+            return channels.values().stream().filter(channel -> !channel.getRenewAt().isAfter(now)).toList();
+        });
+
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 16);
+        receiver.createContext("/push", exchange -> {
+            var headers = exchange.getRequestHeaders();
+            new GoogleCalendarPushController(watchService).push(
+                    headers.getFirst("X-Goog-Channel-ID"),
+                    headers.getFirst("X-Goog-Resource-ID"),
+                    headers.getFirst("X-Goog-Resource-State"),
+                    headers.getFirst("X-Goog-Channel-Token"));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        receiver.start();
+        String address = "http://127.0.0.1:" + receiver.getAddress().getPort() + "/push";
+
+        TelegramProperties telegramProperties = new TelegramProperties("token", "bot", "secret", "/webhook",
+                "https://api.telegram.org", null);
+        watchService = new GoogleCalendarWatchService(calendarService, mirror, health, channelRepository,
+                userRepository, telegramProperties, true, address, 3600, 600, 60, 3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mirror.shutdown();
+        receiver.stop(0);
+        stub.close();
+    }
+
+    @Test
+    void pushNotificationsIncrementallyUpdateMirror() throws Exception {
+        OffsetDateTime start = LocalDate.now(ZONE).plusDays(1).atTime(10, 0).atZone(ZONE).toOffsetDateTime();
+        stub.putEvent(CALENDAR_ID, "evt1", "Планёрка", start, start.plusHours(1));
+
+        mirror.requestSync(userId);
+        mirror.syncDueUsers();
+        await(() -> syncStates.get(userId).getLastSyncedAt() != null);
+        assertEquals(Set.of("evt1"), Set.copyOf(mirrored.keySet()));
+        String fullSyncToken = syncStates.get(userId).getSyncToken();
+        assertNotNull(fullSyncToken);
+        clearInvocations(eventRepository);
+
+        watchService.renewChannels();
+        assertNotNull(channels.get(userId).getResourceId());
+        assertEquals(1, stub.activeChannels());
+
+        stub.putEvent(CALENDAR_ID, "evt2", "Созвон", start.plusHours(2), start.plusHours(3));
+        await(() -> mirrored.keySet().equals(Set.of("evt1", "evt2")));
+
+        stub.putEvent(CALENDAR_ID, "evt3", "Обед", start.plusHours(4), start.plusHours(5));
+        stub.cancelEvent(CALENDAR_ID, "evt1");
+        stub.putEvent(CALENDAR_ID, "evt2", "Созвон с командой", start.plusHours(2), start.plusHours(3));
+        await(() -> mirrored.keySet().equals(Set.of("evt2", "evt3"))
+                && "Созвон с командой".equals(mirrored.get("evt2").getTitle()));
+
+        LocalDate day = start.toLocalDate();
+        assertEquals(List.of("Созвон с командой", "Обед"),
+                mirror.listEvents(user, day, day, ZONE).stream().map(CalendarEventView::title).toList());
+        assertNotEquals(fullSyncToken, syncStates.get(userId).getSyncToken());
+        verify(eventRepository, never()).deleteAllByUserId(userId);
+        assertTrue(stub.notificationsDelivered() >= 4);
+    }
+
+    @Test
+    void channelIsReplacedBeforeExpiry() {
+        watchService.renewChannels();
+        String firstChannelId = channels.get(userId).getChannelId();
+        assertTrue(channels.get(userId).getRenewAt().isBefore(channels.get(userId).getExpiresAt()));
+
+        channels.get(userId).setRenewAt(OffsetDateTime.now().minusSeconds(1));
+        watchService.renewChannels();
+
+        assertNotEquals(firstChannelId, channels.get(userId).getChannelId());
+        assertEquals(1, stub.activeChannels());
+    }
+
+    private GoogleCalendarEventRepository mirroredEvents() {
+        eventRepository = mock(GoogleCalendarEventRepository.class);
+        when(eventRepository.findByUserIdAndEventIdIn(eq(userId), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> eventIds = invocation.getArgument(1);
+            return eventIds.stream().map(mirrored::get).filter(event -> event != null).toList();
+        });
+        when(eventRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<GoogleCalendarEvent> events = invocation.getArgument(0);
+            events.forEach(event -> mirrored.put(event.getEventId(), event));
+            return events;
+        });
+        when(eventRepository.deleteByUserIdAndEventIds(eq(userId), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> eventIds = invocation.getArgument(1);
+            int removed = 0;
+            for (String eventId : eventIds) {
+                removed += mirrored.remove(eventId) == null ? 0 : 1;
+            }
+            return removed;
+        });
+        when(eventRepository.deleteAllByUserId(userId)).thenAnswer(invocation -> {
+            int removed = mirrored.size();
+            mirrored.clear();
+            return removed;
+        });
+        when(eventRepository.findOverlapping(eq(userId), any(), any())).thenAnswer(invocation -> {
+            OffsetDateTime from = invocation.getArgument(1);
+            OffsetDateTime to = invocation.getArgument(2);
+            return mirrored.values().stream()
+                    .filter(event -> event.getStartsAt().isBefore(to) && event.getEndsAt().isAfter(from))
+                    .sorted(Comparator.comparing(GoogleCalendarEvent::getStartsAt))
+                    .toList();
+        });
+        return eventRepository;
+    }
+
+    private GoogleCalendarSyncStateRepository syncStates() {
+        GoogleCalendarSyncStateRepository repository = mock(GoogleCalendarSyncStateRepository.class);
+        when(repository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(syncStates.get(invocation.getArgument(0))));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            GoogleCalendarSyncState state = invocation.getArgument(0);
+            syncStates.put(state.getUserId(), state);
+            return state;
+        });
+        when(repository.updateNextSyncAt(any(), any())).thenAnswer(invocation -> {
+            GoogleCalendarSyncState state = syncStates.get(invocation.<UUID>getArgument(0));
+            if (state == null) {
+                return 0;
+            }
+            state.setNextSyncAt(invocation.getArgument(1));
+            return 1;
+        });
+        when(repository.findTop50ByNextSyncAtLessThanEqualOrderByNextSyncAtAsc(any())).thenAnswer(invocation -> {
+            OffsetDateTime now = invocation.getArgument(0);
+            return syncStates.values().stream().filter(state -> !state.getNextSyncAt().isAfter(now)).toList();
+        });
+        return repository;
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5s, mirrored=" + mirrored.keySet());
+            Thread.sleep(20);
+        }
+    }
+}
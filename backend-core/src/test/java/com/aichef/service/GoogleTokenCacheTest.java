@@ -0,0 +1,63 @@
+package com.aichef.service;
+
+import com.aichef.config.GoogleCalendarProperties;
+import com.aichef.domain.model.UserGoogleConnection;
+import com.aichef.repository.UserGoogleConnectionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GoogleTokenCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UserGoogleConnectionRepository connectionRepository = mock(UserGoogleConnectionRepository.class);
+    private final GoogleTokenCache tokenCache = new GoogleTokenCache(
+            new GoogleCalendarProperties(true, "primary", "client", "secret", "", null, null, null, null),
+            connectionRepository, new GoogleConnectionContextCache(connectionRepository, 30000, 16),
+            60, 300, 3600, 60);
+
+    @AfterEach
+    void tearDown() {
+        tokenCache.shutdown();
+    }
+
+    @Test
+    void invalidationDuringInFlightLoadIsNotOverwritten() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(connectionRepository.findById(userId))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return Optional.of(connection("revoked-token"));
+                })
+                .thenReturn(Optional.of(connection("fresh-token")));
+
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> tokenCache.accessToken(userId));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        tokenCache.invalidate(userId);
+        release.countDown();
+
+        assertEquals("revoked-token", inFlight.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh-token", tokenCache.accessToken(userId));
+    }
+
+    private UserGoogleConnection connection(String accessToken) {
+        UserGoogleConnection connection = new UserGoogleConnection();
+        connection.setRefreshToken("refresh");
+        connection.setAccessToken(accessToken);
+        connection.setTokenExpiresAt(OffsetDateTime.now().plusHours(1));
+        return connection;
+    }
+}
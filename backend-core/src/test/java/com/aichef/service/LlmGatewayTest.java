@@ -0,0 +1,111 @@
+package com.aichef.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmGatewayTest {
+
+    private final LlmGateway gateway = new LlmGateway(1, 1, 1000, true, 95, 50, 0, 1000);
+
+    @AfterEach
+    void tearDown() {
+        gateway.shutdown();
+    }
+
+    @Test
+    void permitIsReleasedWhenCallFails() {
+        assertEquals("fallback", gateway.execute(LlmProvider.CLOUD, "a", gateway.newDeadline(), () -> {
+            throw new IllegalStateException("boom");
+        }, "fallback"));
+
+        assertEquals("ok", gateway.execute(LlmProvider.CLOUD, "b", gateway.newDeadline(), () -> "ok", "fallback"));
+    }
+
+    @Test
+    void permitIsReleasedAndTaskInterruptedWhenCallerGivesUp() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long shortDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+
+        assertEquals("fallback", gateway.execute(LlmProvider.CLOUD, "slow", shortDeadline, () -> {
+            try {
+                never.await();
+                return "late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException(e);
+            }
+        }, "fallback"));
+
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        assertEquals("ok", gateway.execute(LlmProvider.CLOUD, "next", gateway.newDeadline(), () -> "ok", "fallback"));
+    }
+
+    @Test
+    void concurrentCallsWithSameKeyShareOneExecution() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        long deadline = gateway.newDeadline();
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> gateway.execute(
+                LlmProvider.CLOUD, "same", deadline, () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return "shared";
+                }, "fallback"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        String[] second = new String[1];
+        Thread waiter = Thread.ofPlatform().start(() -> second[0] = gateway.execute(
+                LlmProvider.CLOUD, "same", deadline, () -> {
+                    calls.incrementAndGet();
+                    return "own";
+                }, "fallback"));
+        while (waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        waiter.join(2000);
+
+        assertEquals("shared", first.get(2, TimeUnit.SECONDS));
+        assertEquals("shared", second[0]);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void hedgeReturnsSecondaryAndCancelsSlowPrimary() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        String result = gateway.hedge(
+                LlmProvider.CLOUD, () -> {
+                    try {
+                        never.await();
+                        return "primary";
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw new IllegalStateException(e);
+                    }
+                },
+                LlmProvider.OLLAMA, () -> "secondary",
+                "hedged", gateway.newDeadline(), value -> value != null, "fallback");
+
+        assertEquals("secondary", result);
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        assertEquals("ok", gateway.execute(LlmProvider.CLOUD, "after", gateway.newDeadline(), () -> "ok", "fallback"));
+    }
+}
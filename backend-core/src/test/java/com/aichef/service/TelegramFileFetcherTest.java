@@ -0,0 +1,117 @@
+package com.aichef.service;
+
+import com.aichef.config.TelegramProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelegramFileFetcherTest {
+
+    private static final byte[] AUDIO = "OggS-voice-payload".repeat(4096).getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private HttpServer server;
+    private TelegramFileFetcher fetcher;
+    private TelegramFileFetcher.TelegramFile file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 16);
+        server.createContext("/file/bottoken/voice/file_1.oga", exchange -> {
+            downloads.incrementAndGet();
+            exchange.sendResponseHeaders(200, AUDIO.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(AUDIO);
+            }
+        });
+        server.start();
+        String apiBase = "http://127.0.0.1:" + server.getAddress().getPort();
+        TelegramProperties properties = new TelegramProperties("token", "bot", "secret", "/webhook", apiBase, null);
+        fetcher = new TelegramFileFetcher(RestClient.builder().baseUrl(apiBase).build(), properties,
+                AUDIO.length * 2L, 0, 8);
+        file = new TelegramFileFetcher.TelegramFile("file-1", "voice/file_1.oga", AUDIO.length,
+                apiBase + "/file/bottoken/voice/file_1.oga");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void coalescedCallersStartBeforeLeaderConsumerFinishes() throws Exception {
+        CountDownLatch bothRead = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> fetcher.stream(file, body -> slowConsumer(body, bothRead)));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> fetcher.stream(file, body -> slowConsumer(body, bothRead)));
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    void waiterDownloadsItselfWhenLeaderStopsEarly() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        CompletableFuture<Void> leader = CompletableFuture.runAsync(() -> assertThrows(IllegalStateException.class,
+                () -> fetcher.stream(file, body -> {
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    throw new IllegalStateException("engine failed");
+                })));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<byte[]> waiter = CompletableFuture.supplyAsync(() -> fetcher.stream(file, this::readAll));
+        Thread.sleep(100);
+        releaseLeader.countDown();
+
+        leader.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(AUDIO, waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(2, downloads.get());
+    }
+
+    private boolean slowConsumer(InputStream body, CountDownLatch bothRead) {
+        assertArrayEquals(AUDIO, readAll(body));
+        bothRead.countDown();
+        try {
+            return bothRead.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private byte[] readAll(InputStream body) {
+        try {
+            return body.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
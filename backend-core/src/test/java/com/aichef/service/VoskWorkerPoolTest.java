@@ -0,0 +1,142 @@
+package com.aichef.service;
+
+import com.aichef.config.AiProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VoskWorkerPoolTest {
+
+    private static final String FAKE_WORKER = """
+            #!/usr/bin/env python3
+            import json, os, struct, sys, time
+            header = struct.Struct(">cI")
+            requests, responses = sys.stdin.buffer, sys.stdout.buffer
+
+            def read_exact(size):
+                data = b""
+                while len(data) < size:
+                    chunk = requests.read(size - len(data))
+                    if not chunk:
+                        sys.exit(0)
+                    data += chunk
+                return data
+
+            def write(kind, payload):
+                body = json.dumps(payload).encode()
+                responses.write(header.pack(kind, len(body)) + body)
+                responses.flush()
+
+            write(b"O", {"ready": True, "pid": os.getpid()})
+            audio = b""
+            while True:
+                kind, length = header.unpack(read_exact(header.size))
+                payload = read_exact(length)
+                if kind == b"P":
+                    write(b"O", {"ready": True})
+                elif kind == b"J":
+                    audio = b""
+                elif kind == b"A":
+                    audio += payload
+                elif kind == b"E":
+                    if audio == b"crash":
+                        sys.exit(1)
+                    if audio.startswith(b"sleep"):
+                        time.sleep(0.3)
+                    write(b"R", {"text": "pid=%d bytes=%d" % (os.getpid(), len(audio)),
+                                 "words": [{"word": "w", "start": 0.0, "end": 0.1, "conf": 0.9}]})
+            """;
+
+    @TempDir
+    private Path tempDir;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VoskWorkerPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(pythonAvailable(), "python3 is required for the fake Vosk worker");
+        Path worker = tempDir.resolve("fake-vosk-worker");
+        Files.writeString(worker, FAKE_WORKER, StandardCharsets.UTF_8);
+        assertTrue(worker.toFile().setExecutable(true));
+
+        AiProperties aiProperties = new AiProperties(null, null, null, null, null, null, null, null,
+                worker.toString(), tempDir.toString());
+        pool = new VoskWorkerPool(aiProperties, new ObjectMapper(), meterRegistry, true, 2,
+                5_000, 10_000, 2_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void startsWorkersLazilyAndReturnsTranscript() {
+        Transcript transcript = transcribe("hello");
+
+        assertTrue(transcript.text().endsWith("bytes=5"));
+        assertEquals(1, transcript.words().size());
+    }
+
+    @Test
+    void runsJobsOnSeparateWorkersConcurrently() throws Exception {
+        transcribe("warm");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("vosk.pool.workers.idle").gauge().value() < 2) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+        List<CompletableFuture<Transcript>> jobs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            jobs.add(CompletableFuture.supplyAsync(() -> transcribe("sleep")));
+        }
+        List<String> pids = new ArrayList<>();
+        for (CompletableFuture<Transcript> job : jobs) {
+            pids.add(job.get(5, TimeUnit.SECONDS).text().split(" ")[0]);
+        }
+
+        assertEquals(2, pids.stream().distinct().count());
+    }
+
+    @Test
+    void replacesCrashedWorkerInBackground() throws Exception {
+        transcribe("warm");
+
+        assertThrows(IllegalStateException.class, () -> transcribe("crash"));
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(transcribe("after").text().endsWith("bytes=5"));
+        }
+    }
+
+    private Transcript transcribe(String audio) {
+        return pool.transcribeDetailed(new ByteArrayInputStream(audio.getBytes(StandardCharsets.UTF_8)), "pcm");
+    }
+
+    private static boolean pythonAvailable() {
+        try {
+            return new ProcessBuilder("python3", "--version").start().waitFor(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.aichef.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MicroBatcherTest {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void groupsUpToMaxSizeAndDemultiplexesResultsInOrder() throws Exception {
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", 3, 300, inputs -> {
+            batches.add(inputs);
+            return CompletableFuture.completedFuture(inputs.stream().map(value -> "r" + value).toList());
+        })) {
+            List<CompletableFuture<String>> results = List.of(
+                    batcher.submit(1), batcher.submit(2), batcher.submit(3), batcher.submit(4), batcher.submit(5));
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("r" + (i + 1), results.get(i).get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5)), batches);
+        }
+    }
+
+    @Test
+    void missingResultsFailOnlyTheirItems() throws Exception {
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", 2, 300,
+                inputs -> CompletableFuture.completedFuture(List.of("only")))) {
+            CompletableFuture<String> first = batcher.submit(1);
+            CompletableFuture<String> second = batcher.submit(2);
+
+            assertEquals("only", first.get(2, TimeUnit.SECONDS));
+            ExecutionException error = assertThrows(ExecutionException.class, () -> second.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+        }
+    }
+
+    @Test
+    void handlerFailureFailsWholeBatch() {
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", 2, 300,
+                inputs -> CompletableFuture.failedFuture(new IllegalStateException("boom")))) {
+            CompletableFuture<String> first = batcher.submit(1);
+            CompletableFuture<String> second = batcher.submit(2);
+
+            for (CompletableFuture<String> result : List.of(first, second)) {
+                ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(2, TimeUnit.SECONDS));
+                assertEquals("boom", error.getCause().getMessage());
+            }
+        }
+    }
+
+    @Test
+    void cancelledItemsAreNotSentToHandler() throws Exception {
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", 3, 300, inputs -> {
+            batches.add(inputs);
+            return CompletableFuture.completedFuture(inputs.stream().map(value -> "r" + value).toList());
+        })) {
+            CompletableFuture<String> cancelled = batcher.submit(1);
+            CompletableFuture<String> kept = batcher.submit(2);
+            cancelled.cancel(true);
+
+            assertEquals("r2", kept.get(2, TimeUnit.SECONDS));
+            assertEquals(List.of(List.of(2)), batches);
+        }
+    }
+
+    @Test
+    void closeFailsPendingItems() {
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", 1, 0, inputs -> new CompletableFuture<>());
+        batcher.close();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> batcher.submit(1).get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+}
@@ -0,0 +1,73 @@
+package com.aichef.bench;
+
+import com.aichef.config.AiProperties;
+import com.aichef.service.LlmGateway;
+import com.aichef.service.OllamaStructuredParsingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(16)
+public class OllamaBatchingBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+
+    @Param({"false", "true"})
+    public boolean batching;
+
+    @Param({"200"})
+    public long promptOverheadMs;
+
+    @Param({"20"})
+    public long perItemMs;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private OllamaStub stub;
+    private LlmGateway gateway;
+    private OllamaStructuredParsingService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = new OllamaStub(promptOverheadMs, perItemMs);
+        AiProperties aiProperties = new AiProperties(
+                stub.baseUrl(), "bench-model", null, null, null, null, null, null, null, null);
+        gateway = new LlmGateway(8, 2, 60_000, false, 95, 2000, 300, 8000);
+        service = new OllamaStructuredParsingService(
+                aiProperties, new ObjectMapper().findAndRegisterModules(), gateway, "30m", batching, 8, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+        gateway.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public OllamaStructuredParsingService.ParsedEventData extract() {
+        String text = "Созвон с командой номер " + sequence.incrementAndGet() + " завтра в 12";
+        return service.extractEventData(text, ZONE);
+    }
+}
@@ -0,0 +1,111 @@
+package com.aichef.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class OllamaStub implements AutoCloseable {
+
+    private static final Pattern BATCH_ID = Pattern.compile("(?m)^\\s*id=(\\d+) ");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService worker;
+    private final long promptOverheadMs;
+    private final long perItemMs;
+    private final AtomicLong requests = new AtomicLong();
+
+    public OllamaStub(long promptOverheadMs, long perItemMs) throws IOException {
+        this.promptOverheadMs = promptOverheadMs;
+        this.perItemMs = perItemMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        this.worker = Executors.newSingleThreadExecutor();
+        this.server.createContext("/api/generate", this::handleGenerate);
+        this.server.setExecutor(worker);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String prompt = request.path("prompt").asText("");
+        boolean stream = request.path("stream").asBoolean(false);
+
+        Matcher matcher = BATCH_ID.matcher(prompt);
+        ArrayNode items = objectMapper.createArrayNode();
+        while (matcher.find()) {
+            items.add(item(Integer.parseInt(matcher.group(1))));
+        }
+        int itemCount = Math.max(1, items.size());
+        sleep(promptOverheadMs + perItemMs * itemCount);
+
+        String generated;
+        if (items.isEmpty()) {
+            generated = objectMapper.writeValueAsString(item(null));
+        } else {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.set("items", items);
+            generated = objectMapper.writeValueAsString(root);
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("model", request.path("model").asText());
+        response.put("response", generated);
+        response.put("done", true);
+        byte[] body = (objectMapper.writeValueAsString(response) + (stream ? "\n" : ""))
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", stream ? "application/x-ndjson" : "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ObjectNode item(Integer id) {
+        ObjectNode node = objectMapper.createObjectNode();
+        if (id != null) {
+            node.put("id", id);
+        }
+        node.put("intent", "create_meeting");
+        node.put("title", "Встреча");
+        node.put("date", "2026-01-15");
+        node.put("time", "12:00");
+        node.put("duration_minutes", 30);
+        return node;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        worker.shutdownNow();
+    }
+}
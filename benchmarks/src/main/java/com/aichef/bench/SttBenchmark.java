@@ -0,0 +1,286 @@
+package com.aichef.bench;
+
+import com.aichef.config.AiProperties;
+import com.aichef.config.TelegramProperties;
+import com.aichef.service.ChunkedTranscriptionService;
+import com.aichef.service.FallbackVoiceTranscriptionService;
+import com.aichef.service.LocalVoskVoiceTranscriptionService;
+import com.aichef.service.LocalWhisperVoiceTranscriptionService;
+import com.aichef.service.TelegramFileFetcher;
+import com.aichef.service.VoiceTranscriptionResult;
+import com.aichef.service.VoiceTranscriptionService;
+import com.aichef.service.VoskWorkerPool;
+import com.aichef.service.WhisperServerClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public final class SttBenchmark {
+
+    private final Map<String, String> options;
+    private final List<Clip> clips;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private TelegramFileFetcher fileFetcher;
+
+    private SttBenchmark(Map<String, String> options, List<Clip> clips) {
+        this.options = options;
+        this.clips = clips;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        Path corpus = Path.of(options.getOrDefault("corpus", "benchmarks/stt-corpus"));
+        List<Clip> clips = loadCorpus(corpus);
+        if (clips.isEmpty()) {
+            System.err.println("No clips found in " + corpus.resolve("clips")
+                    + ". Run " + corpus.resolve("make_corpus.sh") + " or record clips named after manifest ids.");
+            System.exit(1);
+        }
+        new SttBenchmark(options, clips).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Map<String, Path> files = new HashMap<>();
+        clips.forEach(clip -> files.put(clip.id(), clip.file()));
+        try (TelegramFileStub stub = new TelegramFileStub(files)) {
+            TelegramProperties telegramProperties = new TelegramProperties(
+                    TelegramFileStub.BOT_TOKEN, "bench", "bench", "/bench", stub.baseUrl(), null);
+            fileFetcher = new TelegramFileFetcher(
+                    RestClient.builder().baseUrl(stub.baseUrl()).build(), telegramProperties, 20 * 1024 * 1024, 0, 1);
+
+            List<Integer> concurrencyLevels = Arrays.stream(options.getOrDefault("concurrency", "1,2,4").split(","))
+                    .map(String::trim).map(Integer::parseInt).toList();
+            int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+            double audioSec = clips.stream().mapToDouble(Clip::durationSec).sum();
+            System.out.printf(Locale.ROOT, "corpus: %d clips, %.1fs of audio, cores=%d%n",
+                    clips.size(), audioSec, Runtime.getRuntime().availableProcessors());
+
+            List<Row> rows = new ArrayList<>();
+            for (String engine : options.getOrDefault("engines", "vosk").split(",")) {
+                VoiceTranscriptionService service = createEngine(engine.trim(), concurrencyLevels.stream().max(Integer::compare).orElse(1));
+                warmUp(engine, service);
+                for (int concurrency : concurrencyLevels) {
+                    Row row = measure(engine.trim(), service, concurrency, repeat);
+                    rows.add(row);
+                    printRow(row);
+                }
+            }
+            writeCsv(rows);
+        } finally {
+            for (AutoCloseable resource : resources) {
+                resource.close();
+            }
+        }
+    }
+
+    private VoiceTranscriptionService createEngine(String engine, int maxConcurrency) throws Exception {
+        String[] parts = engine.split(":", 2);
+        String model = parts.length > 1 ? parts[1] : options.getOrDefault("whisper-model", "small");
+        AiProperties aiProperties = new AiProperties(null, null, null, null, null,
+                options.get("whisper-command"), model, options.get("fallback-model"),
+                options.get("vosk-python"), options.get("vosk-model"));
+        return switch (parts[0]) {
+            case "vosk" -> createVosk(aiProperties, maxConcurrency);
+            case "whisper" -> createWhisper(aiProperties, maxConcurrency);
+            case "fallback", "race" -> new FallbackVoiceTranscriptionService(aiProperties,
+                    createVosk(aiProperties, maxConcurrency), createWhisper(aiProperties, maxConcurrency),
+                    null, meterRegistry, 1, "race".equals(parts[0]), 3000, 300_000, 2, 0.6);
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine
+                    + ". Use vosk, whisper[:model], fallback[:model] or race[:model].");
+        };
+    }
+
+    private LocalVoskVoiceTranscriptionService createVosk(AiProperties aiProperties, int maxConcurrency) {
+        if (!aiProperties.hasVoskModelPath()) {
+            throw new IllegalArgumentException("--vosk-model is required for Vosk engines");
+        }
+        int poolSize = Integer.parseInt(options.getOrDefault("vosk-pool-size", String.valueOf(maxConcurrency)));
+        VoskWorkerPool pool = new VoskWorkerPool(aiProperties, objectMapper, meterRegistry, true, poolSize,
+                90_000, 120_000, 5_000);
+        resources.add(pool::shutdown);
+        ChunkedTranscriptionService chunking = new ChunkedTranscriptionService(
+                Boolean.parseBoolean(options.getOrDefault("chunking", "true")), 40, 15, 45, 4,
+                options.getOrDefault("ffmpeg", "ffmpeg"), 180_000);
+        resources.add(chunking::shutdown);
+        return new LocalVoskVoiceTranscriptionService(aiProperties, fileFetcher, pool, chunking);
+    }
+
+    private LocalWhisperVoiceTranscriptionService createWhisper(AiProperties aiProperties, int maxConcurrency) throws Exception {
+        WhisperServerClient client = new WhisperServerClient(objectMapper, options.getOrDefault("whisper-url", ""),
+                maxConcurrency, 300_000);
+        LocalWhisperVoiceTranscriptionService service = new LocalWhisperVoiceTranscriptionService(aiProperties, fileFetcher,
+                client, Boolean.parseBoolean(options.getOrDefault("quality-gate", "true")), 0.5, 0.4, 0.3);
+        if (!service.isAvailable()) {
+            throw new IllegalArgumentException("--whisper-url or --whisper-command is required for Whisper engines");
+        }
+        return service;
+    }
+
+    private void warmUp(String engine, VoiceTranscriptionService service) {
+        Clip clip = clips.get(0);
+        try {
+            service.transcribe(clip.id(), "audio/ogg", (int) Math.ceil(clip.durationSec()));
+        } catch (Exception e) {
+            System.err.println("warm-up failed for " + engine + ": " + e.getMessage());
+        }
+    }
+
+    private Row measure(String engine, VoiceTranscriptionService service, int concurrency, int repeat) throws Exception {
+        List<Clip> jobs = new ArrayList<>();
+        for (int i = 0; i < repeat; i++) {
+            jobs.addAll(clips);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long startedAt = System.nanoTime();
+        List<Future<Sample>> futures = new ArrayList<>();
+        for (Clip clip : jobs) {
+            futures.add(executor.submit(() -> transcribe(service, clip)));
+        }
+        List<Sample> samples = new ArrayList<>();
+        for (Future<Sample> future : futures) {
+            samples.add(future.get());
+        }
+        double wallSec = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+
+        double audioSec = jobs.stream().mapToDouble(Clip::durationSec).sum();
+        double busySec = samples.stream().mapToDouble(Sample::latencySec).sum();
+        long failures = samples.stream().filter(sample -> sample.text() == null).count();
+        long referenceWords = 0;
+        long edits = 0;
+        for (Sample sample : samples) {
+            List<String> reference = WordErrorRate.words(sample.clip().reference());
+            referenceWords += reference.size();
+            edits += WordErrorRate.editDistance(reference, WordErrorRate.words(sample.text()));
+        }
+        double[] latencies = samples.stream().mapToDouble(Sample::latencySec).sorted().toArray();
+        return new Row(engine, concurrency, samples.size(), failures,
+                busySec / audioSec,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.95),
+                audioSec / wallSec,
+                referenceWords == 0 ? 0 : (double) edits / referenceWords);
+    }
+
+    private Sample transcribe(VoiceTranscriptionService service, Clip clip) {
+        long startedAt = System.nanoTime();
+        String text = null;
+        try {
+            VoiceTranscriptionResult result = service.transcribe(clip.id(), "audio/ogg", (int) Math.ceil(clip.durationSec()));
+            text = result.text();
+        } catch (Exception e) {
+            System.err.println("[" + clip.id() + "] failed: " + e.getMessage());
+        }
+        return new Sample(clip, text, (System.nanoTime() - startedAt) / 1e9);
+    }
+
+    private void printRow(Row row) {
+        System.out.printf(Locale.ROOT,
+                "%-18s conc=%-3d jobs=%-4d failed=%-3d RTF=%.3f p50=%.2fs p95=%.2fs throughput=%.2f audio-s/s WER=%.1f%%%n",
+                row.engine(), row.concurrency(), row.jobs(), row.failures(), row.realTimeFactor(),
+                row.p50Sec(), row.p95Sec(), row.throughput(), row.wordErrorRate() * 100);
+    }
+
+    private void writeCsv(List<Row> rows) throws IOException {
+        String csv = options.get("csv");
+        if (csv == null) {
+            return;
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Path.of(csv), StandardCharsets.UTF_8))) {
+            writer.println("engine,concurrency,jobs,failures,rtf,p50_sec,p95_sec,throughput_audio_sec_per_sec,wer");
+            for (Row row : rows) {
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%.4f,%.3f,%.3f,%.3f,%.4f%n",
+                        row.engine(), row.concurrency(), row.jobs(), row.failures(), row.realTimeFactor(),
+                        row.p50Sec(), row.p95Sec(), row.throughput(), row.wordErrorRate());
+            }
+        }
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static List<Clip> loadCorpus(Path corpus) throws IOException {
+        List<Clip> clips = new ArrayList<>();
+        List<String> lines = Files.readAllLines(corpus.resolve("manifest.tsv"), StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split("\t", 2);
+            if (columns.length < 2) {
+                continue;
+            }
+            Path file = corpus.resolve("clips").resolve(columns[0] + ".ogg");
+            if (Files.exists(file)) {
+                clips.add(new Clip(columns[0], file, oggDurationSec(file), columns[1]));
+            }
+        }
+        return clips;
+    }
+
+    static double oggDurationSec(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        for (int i = data.length - 27; i >= 0; i--) {
+            if (data[i] == 'O' && data[i + 1] == 'g' && data[i + 2] == 'g' && data[i + 3] == 'S') {
+                long granule = 0;
+                for (int b = 7; b >= 0; b--) {
+                    granule = (granule << 8) | (data[i + 6 + b] & 0xff);
+                }
+                return granule / 48_000.0;
+            }
+        }
+        throw new IOException("Not an Ogg file: " + file);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            int eq = key.indexOf('=');
+            if (eq >= 0) {
+                options.put(key.substring(0, eq), key.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(key, args[++i]);
+            } else {
+                options.put(key, "true");
+            }
+        }
+        return options;
+    }
+
+    private record Clip(String id, Path file, double durationSec, String reference) {
+    }
+
+    private record Sample(Clip clip, String text, double latencySec) {
+    }
+
+    private record Row(String engine, int concurrency, int jobs, long failures, double realTimeFactor,
+                       double p50Sec, double p95Sec, double throughput, double wordErrorRate) {
+    }
+}
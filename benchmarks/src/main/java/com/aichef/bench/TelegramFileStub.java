@@ -0,0 +1,78 @@
+package com.aichef.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class TelegramFileStub implements AutoCloseable {
+
+    public static final String BOT_TOKEN = "bench";
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final Map<String, Path> files;
+
+    public TelegramFileStub(Map<String, Path> files) throws IOException {
+        this.files = files;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        this.workers = Executors.newFixedThreadPool(8);
+        this.server.createContext("/bot" + BOT_TOKEN + "/getFile", this::handleGetFile);
+        this.server.createContext("/file/bot" + BOT_TOKEN + "/", this::handleDownload);
+        this.server.setExecutor(workers);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handleGetFile(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String fileId = query == null ? "" : URLDecoder.decode(query.replaceFirst("^file_id=", ""), StandardCharsets.UTF_8);
+        Path file = files.get(fileId);
+        if (file == null) {
+            respond(exchange, 404, "application/json", "{\"ok\":false}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String body = "{\"ok\":true,\"result\":{\"file_id\":\"" + fileId + "\",\"file_size\":" + Files.size(file)
+                + ",\"file_path\":\"voice/" + fileId + ".ogg\"}}";
+        respond(exchange, 200, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleDownload(HttpExchange exchange) throws IOException {
+        String name = Path.of(exchange.getRequestURI().getPath()).getFileName().toString();
+        Path file = files.get(name.replaceFirst("\\.ogg$", ""));
+        if (file == null) {
+            respond(exchange, 404, "text/plain", new byte[0]);
+            return;
+        }
+        respond(exchange, 200, "audio/ogg", Files.readAllBytes(file));
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,41 @@
+package com.aichef.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public final class WordErrorRate {
+
+    private WordErrorRate() {
+    }
+
+    public static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT)
+                .replace('ё', 'е')
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+        return normalized.isEmpty() ? List.of() : Arrays.asList(normalized.split(" "));
+    }
+
+    public static int editDistance(List<String> reference, List<String> hypothesis) {
+        int[] previous = new int[hypothesis.size() + 1];
+        int[] current = new int[hypothesis.size() + 1];
+        for (int j = 0; j <= hypothesis.size(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= reference.size(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= hypothesis.size(); j++) {
+                int substitution = previous[j - 1] + (reference.get(i - 1).equals(hypothesis.get(j - 1)) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j] + 1, current[j - 1] + 1));
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[hypothesis.size()];
+    }
+}
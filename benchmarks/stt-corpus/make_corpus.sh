@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+CORPUS_DIR="$(cd "$(dirname "$0")" && pwd)"
+CLIPS_DIR="$CORPUS_DIR/clips"
+VOICE="${STT_CORPUS_VOICE:-ru}"
+NOISE="${STT_CORPUS_NOISE:-0}"
+FORCE="${STT_CORPUS_FORCE:-0}"
+
+for bin in espeak-ng ffmpeg; do
+  if ! command -v "$bin" >/dev/null 2>&1; then
+    echo "$bin is required to synthesize the corpus" >&2
+    exit 1
+  fi
+done
+
+mkdir -p "$CLIPS_DIR"
+tmp_wav="$(mktemp --suffix=.wav)"
+trap 'rm -f "$tmp_wav"' EXIT
+
+tail -n +2 "$CORPUS_DIR/manifest.tsv" | while IFS=$'\t' read -r id reference; do
+  target="$CLIPS_DIR/$id.ogg"
+  if [[ -f "$target" && "$FORCE" != "1" ]]; then
+    continue
+  fi
+  espeak-ng -v "$VOICE" -s 150 -p 50 -a 100 -w "$tmp_wav" "$reference"
+  if [[ "$NOISE" == "1" ]]; then
+    ffmpeg -loglevel error -y -i "$tmp_wav" -f lavfi -i "anoisesrc=color=pink:amplitude=0.02:seed=1" \
+      -filter_complex "[0:a][1:a]amix=inputs=2:duration=first" \
+      -ac 1 -ar 48000 -c:a libopus -b:a 24k -map_metadata -1 -fflags +bitexact -flags:a +bitexact "$target"
+  else
+    ffmpeg -loglevel error -y -i "$tmp_wav" \
+      -ac 1 -ar 48000 -c:a libopus -b:a 24k -map_metadata -1 -fflags +bitexact -flags:a +bitexact "$target"
+  fi
+  echo "generated $target"
+done
+
+echo "commit $CLIPS_DIR/*.ogg so benchmark runs do not depend on espeak-ng and ffmpeg versions"
@@ -0,0 +1,694 @@
+package com.aichef.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class GoogleCalendarStub implements AutoCloseable {
+
+    private static final String API_PREFIX = "/calendar/v3";
+    private static final String BATCH_PATH = "/batch" + API_PREFIX;
+    private static final Pattern BATCH_REQUEST_LINE = Pattern.compile("(?m)^(GET|POST|PUT|PATCH|DELETE) (\\S+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ExecutorService notifier;
+    private final HttpClient httpClient;
+    private final Map<String, StubCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<String> removedCalendars = ConcurrentHashMap.newKeySet();
+    private final List<Fault> faults = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong notificationsDelivered = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private volatile int pageSize = 250;
+    private volatile long syncTokenFloor;
+    private volatile long latencyMs;
+    private volatile long latencyJitterMs;
+    private volatile double errorRate;
+    private volatile int errorRateStatus = 503;
+
+    public GoogleCalendarStub() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        this.workers = Executors.newVirtualThreadPerTaskExecutor();
+        this.notifier = Executors.newSingleThreadExecutor();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(workers);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String apiBase() {
+        return baseUrl() + API_PREFIX;
+    }
+
+    public String tokenUri() {
+        return baseUrl() + "/token";
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long notificationsDelivered() {
+        return notificationsDelivered.get();
+    }
+
+    public long notModifiedResponses() {
+        return notModified.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public int activeChannels() {
+        return channels.size();
+    }
+
+    public int eventCount(String calendarId) {
+        synchronized (this) {
+            return (int) calendar(calendarId).events.values().stream().filter(event -> !event.cancelled()).count();
+        }
+    }
+
+    public void setLatency(long fixedMs, long jitterMs) {
+        this.latencyMs = Math.max(0, fixedMs);
+        this.latencyJitterMs = Math.max(0, jitterMs);
+    }
+
+    public void failNext(String pathFragment, int status, int count) {
+        faults.add(new Fault(pathFragment, status, new AtomicInteger(Math.max(0, count))));
+    }
+
+    public void setErrorRate(double rate, int status) {
+        this.errorRate = Math.max(0, Math.min(1, rate));
+        this.errorRateStatus = status;
+    }
+
+    public void clearFaults() {
+        faults.clear();
+        errorRate = 0;
+        latencyMs = 0;
+        latencyJitterMs = 0;
+    }
+
+    public void removeCalendar(String calendarId) {
+        removedCalendars.add(calendarId);
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    public void expireSyncTokens() {
+        syncTokenFloor = sequence.get();
+    }
+
+    public void putEvent(String calendarId, String eventId, String title, OffsetDateTime startsAt, OffsetDateTime endsAt) {
+        synchronized (this) {
+            calendar(calendarId).events.put(eventId, new StubEvent(eventId, title, startsAt, endsAt, false, sequence.incrementAndGet()));
+        }
+        notifyChannels(calendarId, "exists");
+    }
+
+    public void cancelEvent(String calendarId, String eventId) {
+        synchronized (this) {
+            StubEvent existing = calendar(calendarId).events.get(eventId);
+            if (existing == null) {
+                return;
+            }
+            calendar(calendarId).events.put(eventId, new StubEvent(eventId, existing.title(), existing.startsAt(),
+                    existing.endsAt(), true, sequence.incrementAndGet()));
+        }
+        notifyChannels(calendarId, "exists");
+    }
+
+    private StubCalendar calendar(String calendarId) {
+        return calendars.computeIfAbsent(calendarId, id -> new StubCalendar());
+    }
+
+    private synchronized StubResult insertEvent(String calendarId, JsonNode request) {
+        String eventId = request.path("id").asText("");
+        if (eventId.isBlank()) {
+            eventId = UUID.randomUUID().toString().replace("-", "");
+        }
+        StubCalendar calendar = calendar(calendarId);
+        StubEvent existing = calendar.events.get(eventId);
+        if (existing != null && !existing.cancelled()) {
+            return StubResult.error(409, "duplicate");
+        }
+        StubEvent event = fromRequest(eventId, request);
+        if (event == null) {
+            return StubResult.error(400, "required");
+        }
+        calendar.events.put(eventId, event);
+        return new StubResult(200, toJson(calendarId, event));
+    }
+
+    private synchronized StubResult updateEvent(String calendarId, String eventId, JsonNode request) {
+        StubCalendar calendar = calendar(calendarId);
+        if (!calendar.events.containsKey(eventId)) {
+            return StubResult.error(404, "notFound");
+        }
+        StubEvent event = fromRequest(eventId, request);
+        if (event == null) {
+            return StubResult.error(400, "required");
+        }
+        calendar.events.put(eventId, event);
+        return new StubResult(200, toJson(calendarId, event));
+    }
+
+    private synchronized StubResult deleteEvent(String calendarId, String eventId) {
+        StubEvent existing = calendar(calendarId).events.get(eventId);
+        if (existing == null) {
+            return StubResult.error(404, "notFound");
+        }
+        if (existing.cancelled()) {
+            return StubResult.error(410, "deleted");
+        }
+        calendar(calendarId).events.put(eventId, new StubEvent(eventId, existing.title(), existing.startsAt(),
+                existing.endsAt(), true, sequence.incrementAndGet()));
+        return new StubResult(204, null);
+    }
+
+    private StubEvent fromRequest(String eventId, JsonNode request) {
+        String start = request.path("start").path("dateTime").asText("");
+        String end = request.path("end").path("dateTime").asText("");
+        if (start.isBlank() || end.isBlank()) {
+            return null;
+        }
+        return new StubEvent(eventId, request.path("summary").asText(""), OffsetDateTime.parse(start),
+                OffsetDateTime.parse(end), false, sequence.incrementAndGet());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getRawPath();
+            simulateLatency();
+            Integer faultStatus = injectedFault(path);
+            if (faultStatus != null) {
+                injectedErrors.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                if ("/token".equals(path)) {
+                    sendTokenError(exchange, faultStatus);
+                } else {
+                    sendError(exchange, faultStatus, reasonFor(faultStatus));
+                }
+                return;
+            }
+            if ("POST".equals(method) && "/token".equals(path)) {
+                handleToken(exchange);
+                return;
+            }
+            if ("POST".equals(method) && BATCH_PATH.equals(path)) {
+                handleBatch(exchange);
+                return;
+            }
+            if (!path.startsWith(API_PREFIX + "/")) {
+                sendError(exchange, 404, "notFound");
+                return;
+            }
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.startsWith("Bearer ")) {
+                sendError(exchange, 401, "authError");
+                return;
+            }
+            List<String> segments = segments(path.substring(API_PREFIX.length() + 1));
+            if ("POST".equals(method) && segments.equals(List.of("channels", "stop"))) {
+                handleStop(exchange);
+                return;
+            }
+            if ("POST".equals(method) && segments.equals(List.of("calendars"))) {
+                handleCalendarInsert(exchange);
+                return;
+            }
+            if ("PATCH".equals(method) && segments.size() == 4
+                    && segments.subList(0, 3).equals(List.of("users", "me", "calendarList"))) {
+                exchange.getRequestBody().readAllBytes();
+                sendJson(exchange, 200, objectMapper.createObjectNode().put("id", segments.get(3)));
+                return;
+            }
+            if (segments.size() >= 2 && "calendars".equals(segments.get(0))) {
+                String calendarId = segments.get(1);
+                if (removedCalendars.contains(calendarId)) {
+                    sendError(exchange, 404, "notFound");
+                    return;
+                }
+                if ("GET".equals(method) && segments.size() == 2) {
+                    sendJson(exchange, 200, objectMapper.createObjectNode().put("kind", "calendar#calendar").put("id", calendarId));
+                    return;
+                }
+                if (segments.size() >= 3 && "events".equals(segments.get(2))) {
+                    handleEvents(exchange, method, calendarId, segments);
+                    return;
+                }
+            }
+            sendError(exchange, 404, "notFound");
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "backendError");
+        }
+    }
+
+    private void handleEvents(HttpExchange exchange, String method, String calendarId, List<String> segments) throws IOException {
+        if (segments.size() == 3 && "GET".equals(method)) {
+            handleList(exchange, calendarId);
+            return;
+        }
+        if (segments.size() == 3 && "POST".equals(method)) {
+            sendResult(exchange, insertEvent(calendarId, objectMapper.readTree(exchange.getRequestBody())), calendarId);
+            return;
+        }
+        if (segments.size() == 4 && "POST".equals(method) && "watch".equals(segments.get(3))) {
+            handleWatch(exchange, calendarId);
+            return;
+        }
+        if (segments.size() == 4 && "PUT".equals(method)) {
+            sendResult(exchange, updateEvent(calendarId, segments.get(3), objectMapper.readTree(exchange.getRequestBody())), calendarId);
+            return;
+        }
+        if (segments.size() == 4 && "DELETE".equals(method)) {
+            sendResult(exchange, deleteEvent(calendarId, segments.get(3)), calendarId);
+            return;
+        }
+        sendError(exchange, 404, "notFound");
+    }
+
+    private void handleCalendarInsert(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String calendarId = "stub-" + UUID.randomUUID().toString().replace("-", "") + "@group.calendar.google.com";
+        calendar(calendarId);
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("kind", "calendar#calendar");
+        response.put("id", calendarId);
+        response.put("summary", request.path("summary").asText(""));
+        response.put("timeZone", request.path("timeZone").asText("UTC"));
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        int boundaryAt = contentType == null ? -1 : contentType.indexOf("boundary=");
+        if (boundaryAt < 0) {
+            sendError(exchange, 400, "badRequest");
+            return;
+        }
+        String boundary = contentType.substring(boundaryAt + "boundary=".length()).replace("\"", "").trim();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        String responseBoundary = "batch_stub_" + UUID.randomUUID().toString().replace("-", "");
+        StringBuilder response = new StringBuilder();
+        Set<String> touched = new HashSet<>();
+        int index = 0;
+        for (String part : body.split(Pattern.quote("--" + boundary))) {
+            Matcher requestLine = BATCH_REQUEST_LINE.matcher(part);
+            if (!requestLine.find()) {
+                continue;
+            }
+            StubResult result;
+            List<String> segments = requestLine.group(2).startsWith(API_PREFIX + "/")
+                    ? segments(requestLine.group(2).substring(API_PREFIX.length() + 1))
+                    : List.of();
+            int jsonStart = part.indexOf("\n\n", requestLine.end());
+            if ("POST".equals(requestLine.group(1)) && segments.size() == 3
+                    && "calendars".equals(segments.get(0)) && "events".equals(segments.get(2)) && jsonStart >= 0) {
+                result = insertEvent(segments.get(1), objectMapper.readTree(part.substring(jsonStart + 2).trim()));
+                if (result.status() / 100 == 2) {
+                    touched.add(segments.get(1));
+                }
+            } else {
+                result = StubResult.error(404, "notFound");
+            }
+            response.append("--").append(responseBoundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <response-item-").append(index++).append(">\r\n\r\n")
+                    .append("HTTP/1.1 ").append(result.status()).append(result.status() / 100 == 2 ? " OK" : " Error").append("\r\n")
+                    .append("Content-Type: application/json; charset=UTF-8\r\n\r\n")
+                    .append(result.body() == null ? "" : objectMapper.writeValueAsString(result.body())).append("\r\n");
+        }
+        response.append("--").append(responseBoundary).append("--\r\n");
+        byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "multipart/mixed; boundary=" + responseBoundary);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        touched.forEach(calendarId -> notifyChannels(calendarId, "exists"));
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (!form.contains("refresh_token=")) {
+            sendError(exchange, 400, "invalid_request");
+            return;
+        }
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("access_token", "stub-access-" + tokens.incrementAndGet());
+        response.put("expires_in", 3600);
+        response.put("token_type", "Bearer");
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleList(HttpExchange exchange, String calendarId) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI());
+        StubCalendar calendar = calendar(calendarId);
+        long since = -1;
+        if (query.containsKey("syncToken")) {
+            since = parseSequence(query.get("syncToken"));
+            if (since < syncTokenFloor) {
+                sendError(exchange, 410, "fullSyncRequired");
+                return;
+            }
+        }
+        long snapshot;
+        long version;
+        List<StubEvent> events;
+        synchronized (this) {
+            snapshot = sequence.get();
+            events = new ArrayList<>(calendar.events.values());
+            version = events.stream().mapToLong(StubEvent::sequence).max().orElse(0);
+        }
+        String etag = "\"" + version + "-" + (query.get("timeMin") + "/" + query.get("timeMax")).hashCode() + "\"";
+        if (since < 0 && !query.containsKey("pageToken")) {
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        int offset = 0;
+        if (query.containsKey("pageToken")) {
+            String[] parts = query.get("pageToken").split(":");
+            offset = Integer.parseInt(parts[0]);
+            snapshot = Long.parseLong(parts[1]);
+        }
+        OffsetDateTime timeMin = query.containsKey("timeMin") ? OffsetDateTime.parse(query.get("timeMin")) : null;
+        OffsetDateTime timeMax = query.containsKey("timeMax") ? OffsetDateTime.parse(query.get("timeMax")) : null;
+
+        List<StubEvent> matching = new ArrayList<>();
+        for (StubEvent event : events) {
+            if (event.sequence() > snapshot) {
+                continue;
+            }
+            if (since >= 0) {
+                if (event.sequence() > since) {
+                    matching.add(event);
+                }
+                continue;
+            }
+            if (event.cancelled()
+                    || (timeMin != null && !event.endsAt().isAfter(timeMin))
+                    || (timeMax != null && !event.startsAt().isBefore(timeMax))) {
+                continue;
+            }
+            matching.add(event);
+        }
+        matching.sort((a, b) -> a.startsAt().compareTo(b.startsAt()));
+
+        int end = Math.min(matching.size(), offset + pageSize);
+        ArrayNode items = objectMapper.createArrayNode();
+        for (StubEvent event : matching.subList(Math.min(offset, end), end)) {
+            items.add(toJson(calendarId, event));
+        }
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("kind", "calendar#events");
+        response.set("items", items);
+        if (end < matching.size()) {
+            response.put("nextPageToken", end + ":" + snapshot);
+        } else {
+            response.put("nextSyncToken", "sync-" + snapshot);
+        }
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleWatch(HttpExchange exchange, String calendarId) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String channelId = request.path("id").asText("");
+        String address = request.path("address").asText("");
+        if (channelId.isBlank() || address.isBlank() || !"web_hook".equals(request.path("type").asText())) {
+            sendError(exchange, 400, "invalid");
+            return;
+        }
+        if (channels.containsKey(channelId)) {
+            sendError(exchange, 400, "channelIdNotUnique");
+            return;
+        }
+        long ttlSec = request.path("params").path("ttl").asLong(604800);
+        long expiration = System.currentTimeMillis() + ttlSec * 1000;
+        String resourceId = "resource-" + UUID.randomUUID();
+        Channel channel = new Channel(channelId, calendarId, resourceId, request.path("token").asText(null),
+                address, new AtomicLong());
+        channels.put(channelId, channel);
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("kind", "api#channel");
+        response.put("id", channelId);
+        response.put("resourceId", resourceId);
+        response.put("resourceUri", apiBase() + "/calendars/" + calendarId + "/events");
+        response.put("expiration", String.valueOf(expiration));
+        sendJson(exchange, 200, response);
+        notifier.execute(() -> deliver(channel, "sync"));
+    }
+
+    private void handleStop(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        Channel channel = channels.get(request.path("id").asText(""));
+        if (channel == null || !channel.resourceId().equals(request.path("resourceId").asText(""))) {
+            sendError(exchange, 404, "notFound");
+            return;
+        }
+        channels.remove(channel.id());
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+
+    private void notifyChannels(String calendarId, String state) {
+        for (Channel channel : channels.values()) {
+            if (channel.calendarId().equals(calendarId)) {
+                notifier.execute(() -> deliver(channel, state));
+            }
+        }
+    }
+
+    private void deliver(Channel channel, String state) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(channel.address()))
+                .timeout(Duration.ofSeconds(5))
+                .header("X-Goog-Channel-ID", channel.id())
+                .header("X-Goog-Resource-ID", channel.resourceId())
+                .header("X-Goog-Resource-State", state)
+                .header("X-Goog-Message-Number", String.valueOf(channel.messages().incrementAndGet()))
+                .POST(HttpRequest.BodyPublishers.noBody());
+        if (channel.token() != null) {
+            request.header("X-Goog-Channel-Token", channel.token());
+        }
+        try {
+            HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                notificationsDelivered.incrementAndGet();
+            }
+        } catch (IOException e) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ObjectNode toJson(String calendarId, StubEvent event) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("kind", "calendar#event");
+        node.put("id", event.id());
+        node.put("etag", "\"" + event.sequence() + "\"");
+        if (event.cancelled()) {
+            node.put("status", "cancelled");
+            return node;
+        }
+        node.put("status", "confirmed");
+        node.put("summary", event.title());
+        node.put("htmlLink", "https://calendar.google.com/event?eid=" + event.id() + "&cid=" + calendarId);
+        node.putObject("start").put("dateTime", event.startsAt().toString());
+        node.putObject("end").put("dateTime", event.endsAt().toString());
+        return node;
+    }
+
+    private long parseSequence(String syncToken) {
+        try {
+            return Long.parseLong(syncToken.substring(syncToken.indexOf('-') + 1));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            segments.add(URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8));
+        }
+        return segments;
+    }
+
+    private Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private void sendResult(HttpExchange exchange, StubResult result, String calendarId) throws IOException {
+        if (result.body() == null) {
+            exchange.sendResponseHeaders(result.status(), -1);
+            exchange.close();
+        } else {
+            sendJson(exchange, result.status(), result.body());
+        }
+        if (result.status() / 100 == 2) {
+            notifyChannels(calendarId, "exists");
+        }
+    }
+
+    private void simulateLatency() {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Integer injectedFault(String path) {
+        for (Fault fault : faults) {
+            if ((fault.pathFragment() == null || path.contains(fault.pathFragment()))
+                    && fault.remaining().getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                return fault.status();
+            }
+        }
+        faults.removeIf(fault -> fault.remaining().get() <= 0);
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return errorRateStatus;
+        }
+        return null;
+    }
+
+    private String reasonFor(int status) {
+        return switch (status) {
+            case 401 -> "authError";
+            case 403, 429 -> "rateLimitExceeded";
+            case 404 -> "notFound";
+            case 409 -> "duplicate";
+            case 410 -> "deleted";
+            default -> status >= 500 ? "backendError" : "badRequest";
+        };
+    }
+
+    private void sendTokenError(HttpExchange exchange, int status) throws IOException {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("error", status == 400 || status == 401 ? "invalid_grant" : "server_error");
+        sendJson(exchange, status, error);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String reason) throws IOException {
+        sendJson(exchange, status, StubResult.error(status, reason).body());
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode node) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(node);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+        notifier.shutdownNow();
+    }
+
+    private record StubResult(int status, JsonNode body) {
+
+        private static StubResult error(int status, String reason) {
+            ObjectNode error = JsonNodeFactory.instance.objectNode();
+            ObjectNode body = error.putObject("error");
+            body.put("code", status);
+            body.put("message", reason);
+            body.putArray("errors").addObject().put("reason", reason);
+            return new StubResult(status, error);
+        }
+    }
+
+    private record Fault(String pathFragment, int status, AtomicInteger remaining) {
+    }
+
+    private static final class StubCalendar {
+        private final Map<String, StubEvent> events = new HashMap<>();
+    }
+
+    private record StubEvent(
+            String id,
+            String title,
+            OffsetDateTime startsAt,
+            OffsetDateTime endsAt,
+            boolean cancelled,
+            long sequence
+    ) {
+    }
+
+    private record Channel(String id, String calendarId, String resourceId, String token, String address, AtomicLong messages) {
+    }
+}
@@ -2,14 +2,20 @@ package com.aichef.miniapp;
 
 import com.aichef.config.AiProperties;
 import com.aichef.config.GoogleCalendarProperties;
+import com.aichef.config.OllamaModelHealthIndicator;
 import com.aichef.config.TelegramProcessingConfig;
 import com.aichef.config.TelegramProperties;
 import com.aichef.config.TelegramWebhookRegistrar;
 import com.aichef.controller.GoogleOAuthController;
 import com.aichef.controller.TelegramWebhookController;
+import com.aichef.service.CalendarOutboxWorker;
+import com.aichef.service.GoogleConnectionProbeWorker;
+import com.aichef.service.GoogleExportWorker;
 import com.aichef.service.NotificationDispatchService;
+import com.aichef.service.OllamaModelWarmupService;
 import com.aichef.service.TelegramBotService;
 import com.aichef.service.TelegramPollingService;
+import com.aichef.service.VoiceTranscriptionScheduler;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -32,7 +38,13 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
                         TelegramWebhookController.class,
                         TelegramBotService.class,
                         NotificationDispatchService.class,
-                        GoogleOAuthController.class
+                        GoogleOAuthController.class,
+                        OllamaModelWarmupService.class,
+                        OllamaModelHealthIndicator.class,
+                        VoiceTranscriptionScheduler.class,
+                        CalendarOutboxWorker.class,
+                        GoogleExportWorker.class,
+                        GoogleConnectionProbeWorker.class
                 })
         }
 )
@@ -3,11 +3,16 @@ import argparse
 import json
 import os
 import shutil
+import struct
 import subprocess
 import sys
+import threading
 from pathlib import Path
 
-from vosk import KaldiRecognizer, Model
+from vosk import KaldiRecognizer, Model, SetLogLevel
+
+FRAME_HEADER = struct.Struct(">cI")
+SAMPLE_RATE = 16000
 
 
 def resolve_ffmpeg_binary() -> str:
@@ -29,64 +34,218 @@ def resolve_ffmpeg_binary() -> str:
     )
 
 
-def transcribe(model_path: Path, input_audio: Path) -> str:
-    if not model_path.exists():
-        raise RuntimeError(f"Vosk model path does not exist: {model_path}")
-    if not input_audio.exists():
-        raise RuntimeError(f"Input audio file does not exist: {input_audio}")
-
-    model = Model(str(model_path))
-    recognizer = KaldiRecognizer(model, 16000)
-    recognizer.SetWords(False)
-
-    ffmpeg_cmd = [
+def ffmpeg_decode_command(input_arg: str) -> list[str]:
+    return [
         resolve_ffmpeg_binary(),
         "-loglevel",
         "error",
         "-i",
-        str(input_audio),
+        input_arg,
         "-ar",
-        "16000",
+        str(SAMPLE_RATE),
         "-ac",
         "1",
         "-f",
         "s16le",
         "-",
     ]
-    process = subprocess.Popen(ffmpeg_cmd, stdout=subprocess.PIPE, stderr=subprocess.PIPE)
-    if process.stdout is None:
-        raise RuntimeError("ffmpeg stdout is unavailable")
 
+
+def collect_result(result: dict, parts: list[str], words: list[dict]) -> None:
+    text = (result.get("text") or "").strip()
+    if text:
+        parts.append(text)
+    for item in result.get("result") or []:
+        words.append({
+            "word": item.get("word", ""),
+            "start": round(float(item.get("start", 0.0)), 3),
+            "end": round(float(item.get("end", 0.0)), 3),
+            "conf": round(float(item.get("conf", 0.0)), 4),
+        })
+
+
+def recognize_stream(recognizer: KaldiRecognizer, read_chunk) -> tuple[str, list[dict]]:
     parts: list[str] = []
+    words: list[dict] = []
     while True:
-        chunk = process.stdout.read(4000)
+        chunk = read_chunk()
         if not chunk:
             break
         if recognizer.AcceptWaveform(chunk):
-            result = json.loads(recognizer.Result())
-            text = (result.get("text") or "").strip()
-            if text:
-                parts.append(text)
+            collect_result(json.loads(recognizer.Result()), parts, words)
+
+    collect_result(json.loads(recognizer.FinalResult()), parts, words)
+    return " ".join(parts).strip(), words
+
+
+def transcribe(model_path: Path, input_audio: Path) -> str:
+    if not model_path.exists():
+        raise RuntimeError(f"Vosk model path does not exist: {model_path}")
+    if not input_audio.exists():
+        raise RuntimeError(f"Input audio file does not exist: {input_audio}")
+
+    model = Model(str(model_path))
+    recognizer = KaldiRecognizer(model, 16000)
+    recognizer.SetWords(False)
+
+    process = subprocess.Popen(
+        ffmpeg_decode_command(str(input_audio)), stdout=subprocess.PIPE, stderr=subprocess.PIPE
+    )
+    if process.stdout is None:
+        raise RuntimeError("ffmpeg stdout is unavailable")
 
-    final_result = json.loads(recognizer.FinalResult())
-    final_text = (final_result.get("text") or "").strip()
-    if final_text:
-        parts.append(final_text)
+    text, _ = recognize_stream(recognizer, lambda: process.stdout.read(4000))
 
     stderr = process.stderr.read().decode("utf-8", errors="replace") if process.stderr else ""
     exit_code = process.wait()
     if exit_code != 0:
         raise RuntimeError(f"ffmpeg exited with code {exit_code}: {stderr.strip()}")
 
-    return " ".join(parts).strip()
+    return text
+
+
+def read_exact(stream, size: int) -> bytes:
+    data = bytearray()
+    while len(data) < size:
+        chunk = stream.read(size - len(data))
+        if not chunk:
+            raise EOFError("stdin closed")
+        data.extend(chunk)
+    return bytes(data)
+
+
+def read_frame(stream) -> tuple[bytes, bytes]:
+    frame_type, length = FRAME_HEADER.unpack(read_exact(stream, FRAME_HEADER.size))
+    return frame_type, read_exact(stream, length) if length else b""
+
+
+def write_frame(stream, frame_type: bytes, payload: dict) -> None:
+    body = json.dumps(payload, ensure_ascii=False).encode("utf-8")
+    stream.write(FRAME_HEADER.pack(frame_type, len(body)))
+    stream.write(body)
+    stream.flush()
+
+
+class AudioFrames:
+    def __init__(self, stream):
+        self.stream = stream
+        self.finished = False
+
+    def next_chunk(self) -> bytes:
+        while not self.finished:
+            frame_type, payload = read_frame(self.stream)
+            if frame_type == b"A":
+                if payload:
+                    return payload
+            elif frame_type == b"E":
+                self.finished = True
+            else:
+                raise RuntimeError(f"Unexpected frame inside job: {frame_type!r}")
+        return b""
+
+    def drain(self) -> None:
+        while self.next_chunk():
+            pass
+
+
+def run_job(model: Model, header: dict, frames: AudioFrames) -> tuple[str, list[dict]]:
+    recognizer = KaldiRecognizer(model, SAMPLE_RATE)
+    recognizer.SetWords(bool(header.get("words", True)))
+    if header.get("format") == "pcm":
+        return recognize_stream(recognizer, frames.next_chunk)
+
+    process = subprocess.Popen(
+        ffmpeg_decode_command("pipe:0"),
+        stdin=subprocess.PIPE,
+        stdout=subprocess.PIPE,
+        stderr=subprocess.PIPE,
+    )
+    feed_error: list[BaseException] = []
+
+    def feed() -> None:
+        try:
+            while True:
+                chunk = frames.next_chunk()
+                if not chunk:
+                    break
+                process.stdin.write(chunk)
+        except BrokenPipeError:
+            frames.drain()
+        except BaseException as exc:
+            feed_error.append(exc)
+        finally:
+            try:
+                process.stdin.close()
+            except BrokenPipeError:
+                pass
+
+    feeder = threading.Thread(target=feed, daemon=True)
+    feeder.start()
+    try:
+        result = recognize_stream(recognizer, lambda: process.stdout.read(4000))
+    except BaseException:
+        process.kill()
+        raise
+    finally:
+        feeder.join()
+    stderr = process.stderr.read().decode("utf-8", errors="replace")
+    exit_code = process.wait()
+    if feed_error:
+        raise feed_error[0]
+    if exit_code != 0:
+        raise RuntimeError(f"ffmpeg exited with code {exit_code}: {stderr.strip()}")
+    return result
+
+
+def serve(model_path: Path) -> int:
+    if not model_path.exists():
+        raise RuntimeError(f"Vosk model path does not exist: {model_path}")
+
+    SetLogLevel(-1)
+    requests = sys.stdin.buffer
+    responses = sys.stdout.buffer
+    sys.stdout = sys.stderr
+
+    model = Model(str(model_path))
+    write_frame(responses, b"O", {"ready": True, "pid": os.getpid()})
+
+    while True:
+        try:
+            frame_type, payload = read_frame(requests)
+        except EOFError:
+            return 0
+        if frame_type == b"P":
+            write_frame(responses, b"O", {"ready": True, "pid": os.getpid()})
+            continue
+        if frame_type != b"J":
+            write_frame(responses, b"R", {"error": f"Unexpected frame: {frame_type!r}"})
+            continue
+
+        header = json.loads(payload.decode("utf-8"))
+        frames = AudioFrames(requests)
+        try:
+            text, words = run_job(model, header, frames)
+            frames.drain()
+            write_frame(responses, b"R", {"id": header.get("id"), "text": text, "words": words})
+        except EOFError:
+            return 0
+        except Exception as exc:
+            frames.drain()
+            write_frame(responses, b"R", {"id": header.get("id"), "error": str(exc)})
 
 
 def main() -> int:
     parser = argparse.ArgumentParser()
     parser.add_argument("--model", required=True)
-    parser.add_argument("--input", required=True)
+    parser.add_argument("--input")
+    parser.add_argument("--serve", action="store_true")
     args = parser.parse_args()
 
+    if args.serve:
+        return serve(Path(args.model))
+    if not args.input:
+        parser.error("--input is required unless --serve is set")
+
     text = transcribe(Path(args.model), Path(args.input))
     print(text)
     return 0
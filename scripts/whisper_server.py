@@ -0,0 +1,209 @@
+#!/usr/bin/env python3
+import argparse
+import json
+import os
+import shutil
+import subprocess
+import sys
+import threading
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+from urllib.parse import parse_qs, urlparse
+
+import numpy as np
+import whisper
+
+SAMPLE_RATE = 16000
+
+
+def resolve_ffmpeg_binary() -> str:
+    ffmpeg = shutil.which("ffmpeg")
+    if ffmpeg:
+        return ffmpeg
+
+    fallback_locations = [
+        "/opt/homebrew/bin/ffmpeg",
+        "/usr/local/bin/ffmpeg",
+    ]
+    for path in fallback_locations:
+        if os.path.isfile(path) and os.access(path, os.X_OK):
+            return path
+
+    raise RuntimeError(
+        "ffmpeg is not installed or not available in PATH. "
+        "Expected binary in PATH or /opt/homebrew/bin/ffmpeg."
+    )
+
+
+def decode_audio(data: bytes, audio_format: str) -> np.ndarray:
+    if audio_format == "pcm":
+        pcm = data
+    else:
+        process = subprocess.run(
+            [
+                resolve_ffmpeg_binary(),
+                "-loglevel",
+                "error",
+                "-i",
+                "pipe:0",
+                "-ar",
+                str(SAMPLE_RATE),
+                "-ac",
+                "1",
+                "-f",
+                "s16le",
+                "-",
+            ],
+            input=data,
+            capture_output=True,
+        )
+        if process.returncode != 0:
+            stderr = process.stderr.decode("utf-8", errors="replace").strip()
+            raise RuntimeError(f"ffmpeg exited with code {process.returncode}: {stderr}")
+        pcm = process.stdout
+    return np.frombuffer(pcm, np.int16).flatten().astype(np.float32) / 32768.0
+
+
+class ModelSlot:
+    def __init__(self, name: str):
+        started = time.monotonic()
+        self.name = name
+        self.model = whisper.load_model(name)
+        self.lock = threading.Lock()
+        print(f"Whisper model loaded: {name} in {time.monotonic() - started:.1f}s", file=sys.stderr, flush=True)
+
+
+class WhisperRuntime:
+    def __init__(self, models: list[str], language: str):
+        self.language = language
+        self.slots = {name: ModelSlot(name) for name in models}
+
+    def transcribe(self, model_name: str, audio: np.ndarray, with_words: bool, offset: float) -> dict:
+        slot = self.slots.get(model_name)
+        if slot is None:
+            raise KeyError(model_name)
+        with slot.lock:
+            result = slot.model.transcribe(audio, language=self.language, fp16=False, word_timestamps=with_words)
+        words = []
+        if with_words:
+            for segment in result.get("segments") or []:
+                for item in segment.get("words") or []:
+                    words.append({
+                        "word": item.get("word", ""),
+                        "start": round(float(item.get("start", 0.0)) + offset, 3),
+                        "end": round(float(item.get("end", 0.0)) + offset, 3),
+                        "conf": round(float(item.get("probability", 0.0)), 4),
+                    })
+        return {"text": (result.get("text") or "").strip(), "words": words}
+
+
+def slice_audio(audio: np.ndarray, start: float | None, end: float | None) -> np.ndarray:
+    first = 0 if start is None else max(0, int(start * SAMPLE_RATE))
+    last = len(audio) if end is None else min(len(audio), int(end * SAMPLE_RATE))
+    return audio[first:last]
+
+
+def optional_float(query: dict, name: str) -> float | None:
+    values = query.get(name)
+    return float(values[0]) if values and values[0] else None
+
+
+def make_handler(runtime: WhisperRuntime):
+    class Handler(BaseHTTPRequestHandler):
+        protocol_version = "HTTP/1.1"
+
+        def do_GET(self) -> None:
+            if urlparse(self.path).path != "/health":
+                self.send_json(404, {"error": "not found"})
+                return
+            self.send_json(200, {"status": "ok", "models": list(runtime.slots)})
+
+        def do_POST(self) -> None:
+            url = urlparse(self.path)
+            if url.path != "/transcribe":
+                self.send_json(404, {"error": "not found"})
+                return
+            query = parse_qs(url.query)
+            model_name = (query.get("model") or [""])[0]
+            audio_format = (query.get("format") or ["ogg"])[0]
+            with_words = (query.get("words") or ["0"])[0] in ("1", "true")
+            try:
+                body = self.read_body()
+            except Exception as exc:
+                self.close_connection = True
+                self.send_json(400, {"error": f"Failed to read request body: {exc}"})
+                return
+            if model_name not in runtime.slots:
+                self.send_json(404, {"error": f"Model is not loaded: {model_name}"})
+                return
+
+            started = time.monotonic()
+            try:
+                start = optional_float(query, "start")
+                audio = slice_audio(decode_audio(body, audio_format), start, optional_float(query, "end"))
+                result = runtime.transcribe(model_name, audio, with_words, start or 0.0)
+            except Exception as exc:
+                self.send_json(500, {"error": str(exc)})
+                return
+            self.send_json(200, {
+                "text": result["text"],
+                "words": result["words"],
+                "model": model_name,
+                "elapsed_ms": int((time.monotonic() - started) * 1000),
+            })
+
+        def read_body(self) -> bytes:
+            length = self.headers.get("Content-Length")
+            if length is not None:
+                return self.rfile.read(int(length))
+            if "chunked" not in (self.headers.get("Transfer-Encoding") or "").lower():
+                raise RuntimeError("Content-Length or chunked transfer encoding is required")
+            data = bytearray()
+            while True:
+                size_line = self.rfile.readline().strip()
+                size = int(size_line.split(b";", 1)[0], 16)
+                if size == 0:
+                    while self.rfile.readline().strip():
+                        pass
+                    return bytes(data)
+                data.extend(self.rfile.read(size))
+                self.rfile.readline()
+
+        def send_json(self, status: int, payload: dict) -> None:
+            body = json.dumps(payload, ensure_ascii=False).encode("utf-8")
+            self.send_response(status)
+            self.send_header("Content-Type", "application/json; charset=utf-8")
+            self.send_header("Content-Length", str(len(body)))
+            self.end_headers()
+            self.wfile.write(body)
+
+        def log_message(self, fmt: str, *args) -> None:
+            print(f"whisper-server: {fmt % args}", file=sys.stderr, flush=True)
+
+    return Handler
+
+
+def main() -> int:
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--host", default="127.0.0.1")
+    parser.add_argument("--port", type=int, default=9090)
+    parser.add_argument("--model", action="append", required=True)
+    parser.add_argument("--language", default="ru")
+    args = parser.parse_args()
+
+    runtime = WhisperRuntime(list(dict.fromkeys(args.model)), args.language)
+    server = ThreadingHTTPServer((args.host, args.port), make_handler(runtime))
+    server.daemon_threads = True
+    print(f"Whisper server listening on {args.host}:{args.port}", file=sys.stderr, flush=True)
+    server.serve_forever()
+    return 0
+
+
+if __name__ == "__main__":
+    try:
+        raise SystemExit(main())
+    except KeyboardInterrupt:
+        raise SystemExit(0)
+    except Exception as exc:
+        print(f"Whisper server failed: {exc}", file=sys.stderr)
+        raise SystemExit(1)